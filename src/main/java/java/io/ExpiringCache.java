@@ -28,22 +28,44 @@
 
 package java.io;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
-import java.util.LinkedHashMap;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * A cache of strings, such as the results of path canonicalization, whose
+ * entries expire a fixed time after they were put.  The cache may be used
+ * by concurrent threads without locking.  When it holds more than its
+ * maximum number of entries, expired entries are removed first and then
+ * the oldest entries, down to seven eighths of the maximum so that the
+ * next few puts do not trim again.  Only one thread at a time removes
+ * expired entries or trims; the others carry on.
+ */
 class ExpiringCache {
-    private long millisUntilExpiration;
-    private Map<String,Entry> map;
+    private final long millisUntilExpiration;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String,Entry> map;
     // Clear out old entries every few queries
-    private int queryCount;
-    private int queryOverflow = 300;
-    private int MAX_ENTRIES = 200;
+    private final AtomicInteger queryCount = new AtomicInteger();
+    private final int queryOverflow = 300;
+    // Set while one thread is removing expired entries or trimming the
+    // cache back to its maximum size
+    private final AtomicBoolean trimming = new AtomicBoolean();
+
+    // Statistics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
 
-    static class Entry {
-        private long   timestamp;
-        private String val;
+    static final class Entry {
+        private final long   timestamp;
+        private final String val;
 
         Entry(long timestamp, String val) {
             this.timestamp = timestamp;
@@ -51,77 +73,136 @@ class ExpiringCache {
         }
 
         long   timestamp()                  { return timestamp;           }
-        void   setTimestamp(long timestamp) { this.timestamp = timestamp; }
 
         String val()                        { return val;                 }
-        void   setVal(String val)           { this.val = val;             }
     }
 
     ExpiringCache() {
         this(30000);
     }
 
-    @SuppressWarnings("serial")
     ExpiringCache(long millisUntilExpiration) {
+        this(millisUntilExpiration, 200);
+    }
+
+    ExpiringCache(long millisUntilExpiration, int maxEntries) {
         this.millisUntilExpiration = millisUntilExpiration;
-        map = new LinkedHashMap<String,Entry>() {
-            protected boolean removeEldestEntry(Map.Entry<String,Entry> eldest) {
-              return size() > MAX_ENTRIES;
-            }
-          };
+        this.maxEntries = Math.max(maxEntries, 1);
+        map = new ConcurrentHashMap<>(Math.min(this.maxEntries, 1024));
     }
 
-    synchronized String get(String key) {
-        if (++queryCount >= queryOverflow) {
+    String get(String key) {
+        if (queryCount.incrementAndGet() >= queryOverflow) {
             cleanup();
         }
-        Entry entry = entryFor(key);
+        Entry entry = entryFor(key, System.currentTimeMillis());
         if (entry != null) {
+            hits.increment();
             return entry.val();
         }
+        misses.increment();
         return null;
     }
 
-    synchronized void put(String key, String val) {
-        if (++queryCount >= queryOverflow) {
+    void put(String key, String val) {
+        if (queryCount.incrementAndGet() >= queryOverflow) {
             cleanup();
         }
-        Entry entry = entryFor(key);
-        if (entry != null) {
-            entry.setTimestamp(System.currentTimeMillis());
-            entry.setVal(val);
-        } else {
-            map.put(key, new Entry(System.currentTimeMillis(), val));
+        map.put(key, new Entry(System.currentTimeMillis(), val));
+        if (map.size() > maxEntries) {
+            trim();
         }
     }
 
-    synchronized void clear() {
+    void clear() {
         map.clear();
     }
 
-    private Entry entryFor(String key) {
+    long hitCount()          { return hits.sum();          }
+    long missCount()         { return misses.sum();        }
+    long evictionCount()     { return evictions.sum();     }
+    int  size()              { return map.size();          }
+
+    @Override
+    public String toString() {
+        return "ExpiringCache[size=" + size() +
+               ", hits=" + hitCount() +
+               ", misses=" + missCount() +
+               ", evictions=" + evictionCount() + "]";
+    }
+
+    private Entry entryFor(String key, long now) {
         Entry entry = map.get(key);
-        if (entry != null) {
-            long delta = System.currentTimeMillis() - entry.timestamp();
-            if (delta < 0 || delta >= millisUntilExpiration) {
-                map.remove(key);
-                entry = null;
-            }
+        if (entry != null && isExpired(entry, now)) {
+            map.remove(key, entry);
+            entry = null;
         }
         return entry;
     }
 
+    private boolean isExpired(Entry entry, long now) {
+        long delta = now - entry.timestamp();
+        return delta < 0 || delta >= millisUntilExpiration;
+    }
+
+    /**
+     * Removes expired entries, unless another thread is already removing
+     * entries.
+     */
     private void cleanup() {
-        Set<String> keySet = map.keySet();
-        // Avoid ConcurrentModificationExceptions
-        String[] keys = new String[keySet.size()];
-        int i = 0;
-        for (String key: keySet) {
-            keys[i++] = key;
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            removeExpired();
+        } finally {
+            trimming.set(false);
         }
-        for (int j = 0; j < keys.length; j++) {
-            entryFor(keys[j]);
+    }
+
+    /**
+     * Removes expired entries and then, if the cache is still too large,
+     * the oldest entries, unless another thread is already removing
+     * entries.
+     */
+    private void trim() {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            removeExpired();
+            if (map.size() > maxEntries) {
+                removeOldest(map.size() - (maxEntries - maxEntries / 8));
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private void removeExpired() {
+        queryCount.set(0);
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String,Entry> e : map.entrySet()) {
+            if (isExpired(e.getValue(), now)) {
+                map.remove(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    private void removeOldest(int n) {
+        List<Map.Entry<String,Entry>> entries = new ArrayList<>(map.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String,Entry>>() {
+            public int compare(Map.Entry<String,Entry> e1,
+                               Map.Entry<String,Entry> e2) {
+                return Long.compare(e1.getValue().timestamp(),
+                                    e2.getValue().timestamp());
+            }
+        });
+        for (int i = 0; i < n && i < entries.size(); i++) {
+            Map.Entry<String,Entry> e = entries.get(i);
+            if (map.remove(e.getKey(), e.getValue())) {
+                evictions.increment();
+            }
         }
-        queryCount = 0;
     }
 }
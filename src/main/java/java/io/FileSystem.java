@@ -227,6 +227,15 @@ abstract class FileSystem {
     static boolean useCanonCaches      = true;
     static boolean useCanonPrefixCache = true;
 
+    // Size limit and lifetime, in milliseconds, of the entries of the
+    // canonicalization caches
+    static int     canonCacheSize      = 200;
+    static long    canonCacheTTL       = 30000;
+
+    // Flag for printing the hit, miss and eviction counts of the
+    // canonicalization caches to System.err when the VM shuts down
+    static boolean canonCacheStats     = false;
+
     private static boolean getBooleanProperty(String prop, boolean defaultVal) {
         String val = System.getProperty(prop);
         if (val == null) return defaultVal;
@@ -237,10 +246,28 @@ abstract class FileSystem {
         }
     }
 
+    private static long getLongProperty(String prop, long defaultVal) {
+        String val = System.getProperty(prop);
+        if (val == null) return defaultVal;
+        try {
+            long n = Long.parseLong(val.trim());
+            return (n > 0) ? n : defaultVal;
+        } catch (NumberFormatException e) {
+            return defaultVal;
+        }
+    }
+
     static {
         useCanonCaches      = getBooleanProperty("sun.io.useCanonCaches",
                                                  useCanonCaches);
         useCanonPrefixCache = getBooleanProperty("sun.io.useCanonPrefixCache",
                                                  useCanonPrefixCache);
+        canonCacheSize      = (int)Math.min(Integer.MAX_VALUE,
+                                  getLongProperty("sun.io.canonCacheSize",
+                                                  canonCacheSize));
+        canonCacheTTL       = getLongProperty("sun.io.canonCacheTTL",
+                                              canonCacheTTL);
+        canonCacheStats     = getBooleanProperty("sun.io.canonCacheStats",
+                                                 canonCacheStats);
     }
 }
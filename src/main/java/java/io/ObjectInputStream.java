@@ -1025,6 +1025,48 @@ public class ObjectInputStream
         bin.close();
     }
 
+    /**
+     * Re-binds this stream to the given underlying input stream and returns
+     * it to the state of a newly constructed ObjectInputStream, so that a
+     * single instance can be pooled and reused for many independent
+     * serialization streams.  Unread data buffered from the previous
+     * underlying stream is discarded, internal handle tables and pending
+     * validation callbacks are cleared without being reallocated, and a new
+     * serialization stream header is read from <code>in</code>.  The
+     * object resolution setting and the serialization filter are retained.
+     *
+     * <p>The previous underlying stream is not closed.  A closed
+     * ObjectInputStream may be re-bound.
+     *
+     * @param   in input stream to read from
+     * @throws  StreamCorruptedException if the stream header is incorrect
+     * @throws  IOException if invoked while deserializing an object, or if an
+     *          I/O error occurs while reading the stream header
+     * @throws  IllegalStateException if this stream was created through the
+     *          protected no-arg constructor
+     * @throws  NullPointerException if <code>in</code> is <code>null</code>
+     * @see     ObjectOutputStream#rebind(OutputStream)
+     */
+    public void rebind(InputStream in) throws IOException {
+        if (in == null) {
+            throw new NullPointerException();
+        }
+        if (enableOverride) {
+            throw new IllegalStateException("stream implementation overridden");
+        }
+        if (depth != 0) {
+            throw new IOException("stream active");
+        }
+        bin.rebind(in);
+        clear();
+        closed = false;
+        totalObjectRefs = 0;
+        passHandle = NULL_HANDLE;
+        defaultDataEnd = false;
+        readStreamHeader();
+        bin.setBlockDataMode(true);
+    }
+
     /**
      * Reads in a boolean.
      *
@@ -2733,7 +2775,7 @@ public class ObjectInputStream
     private static class PeekInputStream extends InputStream {
 
         /** underlying stream */
-        private final InputStream in;
+        private InputStream in;
         /** peeked byte */
         private int peekb = -1;
         /** total bytes read from the stream */
@@ -2746,6 +2788,16 @@ public class ObjectInputStream
             this.in = in;
         }
 
+        /**
+         * Switches this stream over to the given underlying stream, dropping
+         * any peeked byte and restarting the byte count.
+         */
+        void rebind(InputStream in) {
+            this.in = in;
+            peekb = -1;
+            totalBytesRead = 0;
+        }
+
         /**
          * Peeks at next byte value in stream.  Similar to read(), except
          * that it does not consume the read value.
@@ -2880,6 +2932,19 @@ public class ObjectInputStream
             din = new DataInputStream(this);
         }
 
+        /**
+         * Switches this stream over to the given underlying stream, discarding
+         * any buffered block data and turning block data mode off.  Internal
+         * buffers are retained for reuse.
+         */
+        void rebind(InputStream in) {
+            this.in.rebind(in);
+            blkmode = false;
+            pos = 0;
+            end = -1;
+            unread = 0;
+        }
+
         /**
          * Sets block data mode to the given mode (true == on, false == off)
          * and returns the previous mode value.  If the new mode is the same as
@@ -503,6 +503,49 @@ public class ObjectOutputStream
         bout.setBlockDataMode(true);
     }
 
+    /**
+     * Re-binds this stream to the given underlying output stream and returns
+     * it to the state of a newly constructed ObjectOutputStream, so that a
+     * single instance can be pooled and reused for many independent
+     * serialization streams.  Any data buffered for the previous underlying
+     * stream is written to it and that stream is flushed, internal handle
+     * and replacement tables are cleared without being reallocated, and a
+     * new serialization stream header is written to <code>out</code>.
+     * The protocol version and object replacement setting are retained.
+     *
+     * <p>Unlike {@link #reset()}, no <code>TC_RESET</code> marker is written:
+     * the data written after this call forms a complete, independent
+     * serialization stream which may be read by a new (or re-bound)
+     * ObjectInputStream.
+     *
+     * @param   out output stream to write to
+     * @throws  IOException if invoked while serializing an object, or if an
+     *          I/O error occurs while flushing the previous underlying stream
+     *          or writing the stream header
+     * @throws  IllegalStateException if this stream was created through the
+     *          protected no-arg constructor
+     * @throws  NullPointerException if <code>out</code> is <code>null</code>
+     * @see     ObjectInputStream#rebind(InputStream)
+     */
+    public void rebind(OutputStream out) throws IOException {
+        if (out == null) {
+            throw new NullPointerException();
+        }
+        if (enableOverride) {
+            throw new IllegalStateException("stream implementation overridden");
+        }
+        if (depth != 0) {
+            throw new IOException("stream active");
+        }
+        bout.rebind(out);
+        clear();
+        if (debugInfoStack != null) {
+            debugInfoStack.clear();
+        }
+        writeStreamHeader();
+        bout.setBlockDataMode(true);
+    }
+
     /**
      * Subclasses may implement this method to allow class data to be stored in
      * the stream. By default this method does nothing.  The corresponding
@@ -1759,7 +1802,7 @@ public class ObjectOutputStream
         private int pos = 0;
 
         /** underlying output stream */
-        private final OutputStream out;
+        private OutputStream out;
         /** loopback stream (for data writes that span data blocks) */
         private final DataOutputStream dout;
 
@@ -1772,6 +1815,18 @@ public class ObjectOutputStream
             dout = new DataOutputStream(this);
         }
 
+        /**
+         * Switches this stream over to the given underlying stream, after
+         * flushing any buffered data to the current one, and turns block data
+         * mode off.  Internal buffers are retained for reuse.  If the flush
+         * fails, this stream stays bound to the current underlying stream.
+         */
+        void rebind(OutputStream out) throws IOException {
+            flush();
+            this.out = out;
+            blkmode = false;
+        }
+
         /**
          * Sets block data mode to the given mode (true == on, false == off)
          * and returns the previous mode value.  If the new mode is the same as
@@ -2264,7 +2319,7 @@ public class ObjectOutputStream
             next = new int[initialCapacity];
             objs = new Object[initialCapacity];
             threshold = (int) (initialCapacity * loadFactor);
-            clear();
+            Arrays.fill(spine, -1);
         }
 
         /**
@@ -2300,11 +2355,15 @@ public class ObjectOutputStream
         }
 
         /**
-         * Resets table to its initial (empty) state.
+         * Resets table to its initial (empty) state.  Only the spine buckets
+         * occupied by current mappings are reset, so the cost is proportional
+         * to the number of mappings rather than to the table capacity.
          */
         void clear() {
-            Arrays.fill(spine, -1);
-            Arrays.fill(objs, 0, size, null);
+            for (int i = 0; i < size; i++) {
+                spine[hash(objs[i]) % spine.length] = -1;
+                objs[i] = null;
+            }
             size = 0;
         }
 
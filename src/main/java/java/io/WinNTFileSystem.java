@@ -26,6 +26,7 @@
 package java.io;
 
 import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.Locale;
 import sun.security.action.GetPropertyAction;
 
@@ -377,8 +378,42 @@ class WinNTFileSystem extends FileSystem {
     // same directory, and must not create results differing from the true
     // canonicalization algorithm in canonicalize_md.c. For this reason the
     // prefix cache is conservative and is not used for complex path names.
-    private ExpiringCache cache       = new ExpiringCache();
-    private ExpiringCache prefixCache = new ExpiringCache();
+    private ExpiringCache cache       = new ExpiringCache(canonCacheTTL,
+                                                          canonCacheSize);
+    private ExpiringCache prefixCache = new ExpiringCache(canonCacheTTL,
+                                                          canonCacheSize);
+
+    // Set once the statistics of the caches are printed at shutdown
+    private volatile boolean cacheStatsHookAdded;
+
+    /*
+     * Prints the statistics of the canonicalization caches to System.err
+     * when the VM shuts down.  The hook is added on the first use of the
+     * caches rather than when this file system is created, which happens
+     * too early during system initialization.
+     */
+    private synchronized void addCacheStatsHook() {
+        if (cacheStatsHookAdded) {
+            return;
+        }
+        cacheStatsHookAdded = true;
+        final Thread hook = new Thread("Canonicalization cache statistics") {
+            public void run() {
+                System.err.println("Canonicalization cache: " + cache);
+                System.err.println("Canonicalization prefix cache: " + prefixCache);
+            }
+        };
+        try {
+            AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                public Void run() {
+                    Runtime.getRuntime().addShutdownHook(hook);
+                    return null;
+                }
+            });
+        } catch (IllegalStateException ignore) {
+            // shutdown in progress
+        }
+    }
 
     @Override
     public String canonicalize(String path) throws IOException {
@@ -403,6 +438,9 @@ class WinNTFileSystem extends FileSystem {
         if (!useCanonCaches) {
             return canonicalize0(path);
         } else {
+            if (canonCacheStats && !cacheStatsHookAdded) {
+                addCacheStatsHook();
+            }
             String res = cache.get(path);
             if (res == null) {
                 String dir = null;
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A <tt>ThreadLocal</tt> whose values are kept in a per-thread array
+ * rather than in a hash map.  Every indexed thread-local variable is
+ * assigned a dense slot index when it is created, so {@link #get} and
+ * {@link #set} are a single array access with no hashing or probing,
+ * irrespective of how many thread-local variables a thread uses.
+ *
+ * <p>Values are held strongly by each thread until they are
+ * {@linkplain #remove removed}, the thread terminates, or the thread calls
+ * {@link #removeAll}.  Slot indices are never reused, so indexed thread
+ * locals are intended for long-lived (typically <tt>static</tt>)
+ * variables; creating them in large numbers makes the per-thread arrays
+ * grow accordingly.
+ *
+ * <p>Threads that are reused for unrelated work, such as the workers of a
+ * thread pool, may drop all of their indexed thread-local values between
+ * tasks with {@link #removeAll}, for example from
+ * {@link java.util.concurrent.ThreadPoolExecutor#afterExecute afterExecute}.
+ *
+ * <p>Values are not inherited by child threads.
+ *
+ * @param <T> the type of the thread local's value
+ * @see     ThreadLocal
+ * @since   9
+ */
+public class IndexedThreadLocal<T> extends ThreadLocal<T> {
+    /**
+     * Stands in for a null value in the per-thread array, where null means
+     * "no value".
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    /**
+     * Initial length of a thread's array of values.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The next slot index to be given out.
+     */
+    private static final AtomicInteger nextIndex = new AtomicInteger();
+
+    /**
+     * The index of this variable's value in Thread.indexedThreadLocals.
+     */
+    private final int index;
+
+    /**
+     * Creates an indexed thread local variable.
+     * @see #withInitial(java.util.function.Supplier)
+     */
+    public IndexedThreadLocal() {
+        int i = nextIndex.getAndIncrement();
+        if (i < 0) {
+            nextIndex.set(Integer.MIN_VALUE);
+            throw new Error("Too many indexed thread locals");
+        }
+        index = i;
+    }
+
+    /**
+     * Creates an indexed thread local variable. The initial value of the
+     * variable is determined by invoking the {@code get} method on the
+     * {@code Supplier}.
+     *
+     * @param <S> the type of the thread local's value
+     * @param supplier the supplier to be used to determine the initial value
+     * @return a new indexed thread local variable
+     * @throws NullPointerException if the specified supplier is null
+     */
+    public static <S> IndexedThreadLocal<S> withInitial(Supplier<? extends S> supplier) {
+        return new SuppliedIndexedThreadLocal<>(supplier);
+    }
+
+    /**
+     * Returns the value in the current thread's copy of this
+     * thread-local variable.  If the variable has no value for the
+     * current thread, it is first initialized to the value returned
+     * by an invocation of the {@link #initialValue} method.
+     *
+     * @return the current thread's value of this thread-local
+     */
+    @Override
+    public T get() {
+        Object[] values = Thread.currentThread().indexedThreadLocals;
+        if (values != null && index < values.length) {
+            Object v = values[index];
+            if (v != null) {
+                return unmask(v);
+            }
+        }
+        T value = initialValue();
+        store(Thread.currentThread(), value);
+        return value;
+    }
+
+    /**
+     * Sets the current thread's copy of this thread-local variable
+     * to the specified value.
+     *
+     * @param value the value to be stored in the current thread's copy of
+     *        this thread-local.
+     */
+    @Override
+    public void set(T value) {
+        store(Thread.currentThread(), value);
+    }
+
+    /**
+     * Removes the current thread's value for this thread-local
+     * variable.  If this thread-local variable is subsequently
+     * {@linkplain #get read} by the current thread, its value will be
+     * reinitialized by invoking its {@link #initialValue} method,
+     * unless its value is {@linkplain #set set} by the current thread
+     * in the interim.
+     */
+    @Override
+    public void remove() {
+        Object[] values = Thread.currentThread().indexedThreadLocals;
+        if (values != null && index < values.length) {
+            values[index] = null;
+        }
+    }
+
+    /**
+     * Removes the current thread's values for all indexed thread-local
+     * variables at once.  Ordinary {@link ThreadLocal} values of the
+     * current thread are not affected.
+     */
+    public static void removeAll() {
+        Thread.currentThread().indexedThreadLocals = null;
+    }
+
+    private void store(Thread t, T value) {
+        Object[] values = t.indexedThreadLocals;
+        if (values == null) {
+            values = new Object[Math.max(INITIAL_CAPACITY, index + 1)];
+            t.indexedThreadLocals = values;
+        } else if (index >= values.length) {
+            values = Arrays.copyOf(values,
+                                   Math.max(values.length << 1, index + 1));
+            t.indexedThreadLocals = values;
+        }
+        values[index] = (value == null) ? NULL_VALUE : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unmask(Object v) {
+        return (v == NULL_VALUE) ? null : (T) v;
+    }
+
+    /**
+     * An extension of IndexedThreadLocal that obtains its initial value from
+     * the specified {@code Supplier}.
+     */
+    static final class SuppliedIndexedThreadLocal<T> extends IndexedThreadLocal<T> {
+
+        private final Supplier<? extends T> supplier;
+
+        SuppliedIndexedThreadLocal(Supplier<? extends T> supplier) {
+            this.supplier = Objects.requireNonNull(supplier);
+        }
+
+        @Override
+        protected T initialValue() {
+            return supplier.get();
+        }
+    }
+}
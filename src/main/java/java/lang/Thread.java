@@ -201,6 +201,13 @@ class Thread implements Runnable {
     //继承InheritableThreadLocal的 ThreadLocalMap
     ThreadLocal.ThreadLocalMap inheritableThreadLocals = null;
 
+    /*
+     * IndexedThreadLocal values pertaining to this thread, by slot index.
+     * This array is maintained by the IndexedThreadLocal class.
+     */
+    //IndexedThreadLocal 按下标存放的值数组
+    Object[] indexedThreadLocals = null;
+
     /*
      * The requested stack size for this thread, or 0 if the creator did
      * not specify a stack size.  It is up to the VM to do whatever it
@@ -798,6 +805,7 @@ class Thread implements Runnable {
         /* Speed the release of some of these resources */
         threadLocals = null;
         inheritableThreadLocals = null;
+        indexedThreadLocals = null;
         inheritedAccessControlContext = null;
         blocker = null;
         uncaughtExceptionHandler = null;
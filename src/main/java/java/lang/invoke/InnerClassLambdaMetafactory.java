@@ -86,12 +86,30 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
     // For dumping generated classes to disk, for debugging purposes
     private static final ProxyClassesDumper dumper;
 
+    // Archive of previously generated classes to define instead of spinning
+    private static final LambdaProxyArchive archive;
+
+    // Archive being written with the classes spun in this run
+    private static final LambdaProxyArchive archiveWriter;
+
     static {
         final String key = "jdk.internal.lambda.dumpProxyClasses";
         String path = AccessController.doPrivileged(
                 new GetPropertyAction(key), null,
                 new PropertyPermission(key , "read"));
         dumper = (null == path) ? null : ProxyClassesDumper.getInstance(path);
+
+        final String archiveKey = "jdk.internal.lambda.proxyArchive";
+        path = AccessController.doPrivileged(
+                new GetPropertyAction(archiveKey), null,
+                new PropertyPermission(archiveKey , "read"));
+        archive = LambdaProxyArchive.open(path);
+
+        final String archiveDumpKey = "jdk.internal.lambda.proxyArchive.dump";
+        path = AccessController.doPrivileged(
+                new GetPropertyAction(archiveDumpKey), null,
+                new PropertyPermission(archiveDumpKey , "read"));
+        archiveWriter = LambdaProxyArchive.create(path);
     }
 
     // See context values in AbstractValidatingLambdaMetafactory
@@ -247,6 +265,24 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
      * is not found
      */
     private Class<?> spinInnerClass() throws LambdaConversionException {
+        String key = null;
+        if (archive != null || archiveWriter != null) {
+            key = archiveKey();
+            byte[] archived = (archive != null) ? archive.lookup(key) : null;
+            if (archived != null) {
+                try {
+                    Class<?> innerClass =
+                        UNSAFE.defineAnonymousClass(targetClass, archived, null);
+                    // link it now, so that archived bytes the VM rejects
+                    // are spun again instead of failing the call site
+                    UNSAFE.ensureClassInitialized(innerClass);
+                    return innerClass;
+                } catch (LinkageError | RuntimeException e) {
+                    // fall through and spin the class
+                }
+            }
+        }
+
         String[] interfaces;
         String samIntf = samBase.getName().replace('.', '/');
         boolean accidentallySerializable = !isSerializable && Serializable.class.isAssignableFrom(samBase);
@@ -323,9 +359,41 @@ import static jdk.internal.org.objectweb.asm.Opcodes.*;
             new PropertyPermission("user.dir", "read"));
         }
 
+        if (archiveWriter != null) {
+            archiveWriter.record(key, classBytes);
+        }
+
         return UNSAFE.defineAnonymousClass(targetClass, classBytes, null);
     }
 
+    /**
+     * Returns a key identifying the class that spinInnerClass would generate
+     * for this call site, apart from its name.  Every input that influences
+     * the generated class file is part of the key.
+     */
+    private String archiveKey() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(targetClass.getName())
+          .append(' ').append(invokedType.toMethodDescriptorString())
+          .append(' ').append(samBase.getName())
+          .append(' ').append(samMethodName)
+          .append(samMethodType.toMethodDescriptorString())
+          .append(' ').append(implKind)
+          .append(' ').append(implMethodClassName)
+          .append('.').append(implMethodName).append(implMethodDesc)
+          .append(' ').append(instantiatedMethodType.toMethodDescriptorString())
+          .append(' ').append(isSerializable);
+        for (Class<?> markerInterface : markerInterfaces) {
+            sb.append(' ').append(markerInterface.getName());
+        }
+        if (additionalBridges != null) {
+            for (MethodType mt : additionalBridges) {
+                sb.append(' ').append(mt.toMethodDescriptorString());
+            }
+        }
+        return sb.toString();
+    }
+
     /**
      * Generate the factory method for the class
      */
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.invoke;
+
+import sun.security.action.GetPropertyAction;
+import sun.util.logging.PlatformLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilePermission;
+import java.io.IOException;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PropertyPermission;
+import java.util.Set;
+
+/**
+ * Archive of lambda proxy class files, used by InnerClassLambdaMetafactory
+ * to avoid spinning classes with ASM at link time.
+ *
+ * <p>A training run started with
+ * {@code -Djdk.internal.lambda.proxyArchive.dump=<file>} appends the class
+ * file of every spun lambda proxy to the archive, keyed by a description of
+ * the call site (see {@code InnerClassLambdaMetafactory.archiveKey}).  A
+ * later run started with {@code -Djdk.internal.lambda.proxyArchive=<file>}
+ * reads the archive once and defines the archived class file for every call
+ * site whose key matches, spinning only the call sites that are missing.
+ * An archive is ignored if it was written by a different VM version.
+ *
+ * <p>The archive is a sequence of records following a header:
+ * <pre>
+ *     int     magic
+ *     UTF     java.vm.version of the writing VM
+ *     { UTF key; int length; byte[length] classfile }*
+ * </pre>
+ * A truncated trailing record is ignored.  An archive that cannot be read,
+ * or that holds a record whose length is negative or larger than the file,
+ * is not used at all.
+ *
+ * @implNote
+ * <p> Because this class is called by LambdaMetafactory, make use
+ * of lambda lead to recursive calls cause stack overflow.
+ */
+final class LambdaProxyArchive {
+    private static final int MAGIC = 0x4C504131;
+
+    /** archived class files by key; null if this archive is being written */
+    private final Map<String, byte[]> classes;
+    /** archive output; null if this archive is being read */
+    private final DataOutputStream out;
+    /** keys already written to out */
+    private final Set<String> written;
+
+    private LambdaProxyArchive(Map<String, byte[]> classes) {
+        this.classes = classes;
+        this.out = null;
+        this.written = null;
+    }
+
+    private LambdaProxyArchive(DataOutputStream out) {
+        this.classes = null;
+        this.out = out;
+        this.written = new HashSet<>();
+    }
+
+    /**
+     * Reads the archive at the given path, returning null (after logging a
+     * warning) if it cannot be used.
+     */
+    public static LambdaProxyArchive open(final String path) {
+        if (null == path) {
+            return null;
+        }
+        try {
+            Map<String, byte[]> classes = AccessController.doPrivileged(
+                new PrivilegedAction<Map<String, byte[]>>() {
+                    @Override
+                    public Map<String, byte[]> run() {
+                        return read(path.trim());
+                    }
+                }, null, new FilePermission("<<ALL FILES>>", "read"),
+                new PropertyPermission("java.vm.version", "read"));
+            return new LambdaProxyArchive(classes);
+        } catch (IllegalArgumentException iae) {
+            PlatformLogger.getLogger(LambdaProxyArchive.class.getName())
+                          .warning(iae.getMessage() + " - archive disabled");
+        } catch (RuntimeException e) {
+            PlatformLogger.getLogger(LambdaProxyArchive.class.getName())
+                          .warning("Archive " + path + " cannot be read: " + e
+                                   + " - archive disabled");
+        }
+        return null;
+    }
+
+    /**
+     * Creates a new archive at the given path, returning null (after logging
+     * a warning) if it cannot be written.
+     */
+    public static LambdaProxyArchive create(final String path) {
+        if (null == path) {
+            return null;
+        }
+        try {
+            DataOutputStream out = AccessController.doPrivileged(
+                new PrivilegedAction<DataOutputStream>() {
+                    @Override
+                    public DataOutputStream run() {
+                        return startArchive(path.trim());
+                    }
+                }, null, new FilePermission("<<ALL FILES>>", "read, write"),
+                new PropertyPermission("java.vm.version", "read"));
+            return new LambdaProxyArchive(out);
+        } catch (IllegalArgumentException iae) {
+            PlatformLogger.getLogger(LambdaProxyArchive.class.getName())
+                          .warning(iae.getMessage() + " - archiving disabled");
+        } catch (RuntimeException e) {
+            PlatformLogger.getLogger(LambdaProxyArchive.class.getName())
+                          .warning("Archive " + path + " cannot be written: " + e
+                                   + " - archiving disabled");
+        }
+        return null;
+    }
+
+    /**
+     * Returns the archived class file for the given key, or null.
+     */
+    public byte[] lookup(String key) {
+        return (classes == null) ? null : classes.get(key);
+    }
+
+    /**
+     * Appends a class file to the archive under the given key.  Only the
+     * first class file recorded for a key is kept.
+     */
+    public synchronized void record(String key, byte[] classBytes) {
+        if (out == null || !written.add(key)) {
+            return;
+        }
+        try {
+            out.writeUTF(key);
+            out.writeInt(classBytes.length);
+            out.write(classBytes);
+            out.flush();
+        } catch (IOException ignore) {
+            PlatformLogger.getLogger(LambdaProxyArchive.class.getName())
+                          .warning("Exception writing lambda proxy archive");
+            // simply don't care if this operation failed
+        }
+    }
+
+    private static String vmVersion() {
+        return String.valueOf(new GetPropertyAction("java.vm.version").run());
+    }
+
+    private static Map<String, byte[]> read(String path) {
+        Map<String, byte[]> classes = new HashMap<>();
+        // no record can be longer than the file that holds it
+        long fileLength = new File(path).length();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalArgumentException("File " + path + " is not a lambda proxy archive");
+            }
+            if (!vmVersion().equals(in.readUTF())) {
+                throw new IllegalArgumentException("Archive " + path + " was written by a different VM");
+            }
+            for (;;) {
+                String key;
+                try {
+                    key = in.readUTF();
+                } catch (EOFException eof) {
+                    break;
+                }
+                int length = in.readInt();
+                if (length < 0 || length > fileLength) {
+                    throw new IllegalArgumentException("Archive " + path + " is corrupt");
+                }
+                byte[] classBytes = new byte[length];
+                in.readFully(classBytes);
+                classes.put(key, classBytes);
+            }
+        } catch (EOFException eof) {
+            // truncated trailing record, keep what was read
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("Archive " + path + " cannot be read");
+        }
+        return classes;
+    }
+
+    private static DataOutputStream startArchive(String path) {
+        try {
+            DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(path)));
+            out.writeInt(MAGIC);
+            out.writeUTF(vmVersion());
+            out.flush();
+            return out;
+        } catch (IOException ioe) {
+            throw new IllegalArgumentException("Archive " + path + " cannot be written");
+        }
+    }
+}
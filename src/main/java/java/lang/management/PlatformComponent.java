@@ -212,7 +212,10 @@ enum PlatformComponent {
         false, // zero or more instances
         new MXBeanFetcher<BufferPoolMXBean>() {
             public List<BufferPoolMXBean> getMXBeans() {
-                return ManagementFactoryHelper.getBufferPoolMXBeans();
+                List<BufferPoolMXBean> pools = new ArrayList<>(
+                    ManagementFactoryHelper.getBufferPoolMXBeans());
+                pools.addAll(java.nio.ByteBufferPool.getPools());
+                return pools;
             }
         }),
 
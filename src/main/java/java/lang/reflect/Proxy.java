@@ -239,6 +239,44 @@ public class Proxy implements java.io.Serializable {
     private static final WeakCache<ClassLoader, Class<?>[], Class<?>>
         proxyClassCache = new WeakCache<>(new KeyFactory(), new ProxyClassFactory());
 
+    /**
+     * proxy classes implementing a single interface, keyed by that
+     * interface and then by defining loader; a front for proxyClassCache
+     * that can be queried without allocating a cache key
+     */
+    private static final ClassValue<ProxyClassTable> singleInterfaceProxies =
+        new ClassValue<ProxyClassTable>() {
+            @Override
+            protected ProxyClassTable computeValue(Class<?> intf) {
+                return new ProxyClassTable();
+            }
+        };
+
+    /**
+     * the accessible constructor of each proxy class
+     */
+    private static final ClassValue<Constructor<?>> proxyConstructors =
+        new ClassValue<Constructor<?>>() {
+            @Override
+            protected Constructor<?> computeValue(Class<?> cl) {
+                final Constructor<?> cons;
+                try {
+                    cons = cl.getConstructor(constructorParams);
+                } catch (NoSuchMethodException e) {
+                    throw new InternalError(e.toString(), e);
+                }
+                if (!Modifier.isPublic(cl.getModifiers())) {
+                    AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                        public Void run() {
+                            cons.setAccessible(true);
+                            return null;
+                        }
+                    });
+                }
+                return cons;
+            }
+        };
+
     /**
      * the invocation handler for this proxy instance.
      * @serial
@@ -413,12 +451,82 @@ public class Proxy implements java.io.Serializable {
             throw new IllegalArgumentException("interface limit exceeded");
         }
 
+        // the most frequent case: look up without allocating a cache key
+        if (interfaces.length == 1) {
+            ProxyClassTable table = singleInterfaceProxies.get(interfaces[0]);
+            Class<?> cl = table.get(loader);
+            if (cl == null) {
+                cl = proxyClassCache.get(loader, interfaces);
+                table.put(loader, cl);
+            }
+            return cl;
+        }
+
         // If the proxy class defined by the given loader implementing
         // the given interfaces exists, this will simply return the cached copy;
         // otherwise, it will create the proxy class via the ProxyClassFactory
         return proxyClassCache.get(loader, interfaces);
     }
 
+    /*
+     * A small table of the proxy classes implementing one interface, one per
+     * defining loader.  Loaders and proxy classes are weakly referenced so
+     * that the table, which is reachable from the interface, does not keep
+     * the loaders of other proxy classes alive.  Lookups scan an immutable
+     * array; updates replace it.
+     */
+    private static final class ProxyClassTable {
+        private static final Entry[] EMPTY = new Entry[0];
+
+        private volatile Entry[] entries = EMPTY;
+
+        private static final class Entry {
+            // null for the bootstrap loader
+            final WeakReference<ClassLoader> loaderRef;
+            final WeakReference<Class<?>> classRef;
+
+            Entry(ClassLoader loader, Class<?> cl) {
+                loaderRef = (loader == null) ? null : new WeakReference<>(loader);
+                classRef = new WeakReference<Class<?>>(cl);
+            }
+
+            boolean matches(ClassLoader loader) {
+                return (loader == null)
+                    ? loaderRef == null
+                    : loaderRef != null && loaderRef.get() == loader;
+            }
+
+            boolean isStale() {
+                return (loaderRef != null && loaderRef.get() == null) ||
+                       classRef.get() == null;
+            }
+        }
+
+        Class<?> get(ClassLoader loader) {
+            Entry[] es = entries;
+            for (int i = 0; i < es.length; i++) {
+                if (es[i].matches(loader)) {
+                    return es[i].classRef.get();
+                }
+            }
+            return null;
+        }
+
+        synchronized void put(ClassLoader loader, Class<?> cl) {
+            Entry[] es = entries;
+            Entry[] newEntries = new Entry[es.length + 1];
+            int n = 0;
+            for (Entry e : es) {
+                if (!e.matches(loader) && !e.isStale()) {
+                    newEntries[n++] = e;
+                }
+            }
+            newEntries[n++] = new Entry(loader, cl);
+            entries = (n == newEntries.length) ? newEntries
+                                               : Arrays.copyOf(newEntries, n);
+        }
+    }
+
     /*
      * a key used for proxy class with 0 implemented interfaces
      */
@@ -726,17 +834,7 @@ public class Proxy implements java.io.Serializable {
                 checkNewProxyPermission(Reflection.getCallerClass(), cl);
             }
 
-            final Constructor<?> cons = cl.getConstructor(constructorParams);
-            final InvocationHandler ih = h;
-            if (!Modifier.isPublic(cl.getModifiers())) {
-                AccessController.doPrivileged(new PrivilegedAction<Void>() {
-                    public Void run() {
-                        cons.setAccessible(true);
-                        return null;
-                    }
-                });
-            }
-            return cons.newInstance(new Object[]{h});
+            return proxyConstructors.get(cl).newInstance(new Object[]{h});
         } catch (IllegalAccessException|InstantiationException e) {
             throw new InternalError(e.toString(), e);
         } catch (InvocationTargetException e) {
@@ -746,8 +844,6 @@ public class Proxy implements java.io.Serializable {
             } else {
                 throw new InternalError(t.toString(), t);
             }
-        } catch (NoSuchMethodException e) {
-            throw new InternalError(e.toString(), e);
         }
     }
 
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.net;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.AccessController;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import sun.misc.URLClassPath;
+import sun.net.www.ParseUtil;
+import sun.security.action.GetIntegerAction;
+import sun.security.action.GetPropertyAction;
+
+/**
+ * Speeds up failed class lookups in a {@link URLClassLoader}.
+ *
+ * <p>Two structures are maintained on behalf of the loader:
+ * <ul>
+ * <li>a package index, which lists the packages of the entries of every
+ * jar file on the search path.  A class whose package does not appear in
+ * the index cannot be found on the search path, so the loader may fail the
+ * lookup without walking each jar in turn.  The index is built after the
+ * first lookup that walked the whole search path without finding its class;
+ * by then the loader has opened every jar, and the zip library shares the
+ * open file and its central directory with the {@code JarFile} opened here.
+ * The packages of each jar are kept, so that appending a URL only lists the
+ * new jar.  The index is only used when it can be complete: every URL on
+ * the search path must name a local jar file which has neither a {@code
+ * Class-Path} manifest attribute nor a {@code META-INF/INDEX.LIST} (both of
+ * which can pull further jars into the search).  Otherwise the index is
+ * disabled and lookups walk the search path as before.</li>
+ * <li>a bounded set of class names that were recently looked up and not
+ * found, from which the oldest name is evicted when it is full.  As a class
+ * that is missing from a directory or a remote URL may appear there at any
+ * time, the set is only used under the same conditions as the package
+ * index, once the index has been built.</li>
+ * </ul>
+ * Both are discarded whenever a URL is appended to the search path.
+ *
+ * <p>The behaviour can be tuned with the system properties
+ * {@code java.net.URLClassLoader.packageIndex} (default {@code true}) and
+ * {@code java.net.URLClassLoader.negativeCacheSize} (default 1024;
+ * 0 disables the cache).
+ *
+ * <p>Instances are safe for use by multiple concurrent threads.
+ */
+final class ClassPathLookupCache {
+
+    private static final boolean PACKAGE_INDEX_ENABLED =
+        !"false".equalsIgnoreCase(AccessController.doPrivileged(
+            new GetPropertyAction("java.net.URLClassLoader.packageIndex")));
+
+    private static final int NEGATIVE_CACHE_SIZE = Math.max(0,
+        AccessController.doPrivileged(new GetIntegerAction(
+            "java.net.URLClassLoader.negativeCacheSize", 1024)));
+
+    /* marker for a package index that cannot be built for this search path */
+    private static final Set<String> NO_INDEX = new HashSet<>();
+
+    private final URLClassPath ucp;
+    private final boolean indexable;
+
+    /* package names ("java/lang") of the search path, NO_INDEX, or null
+       if not yet built */
+    private volatile Set<String> packages;
+
+    /* package names of each jar file listed so far, or NO_INDEX, by path */
+    private final Map<String, Set<String>> jarPackages =
+        new ConcurrentHashMap<>();
+
+    /* names of classes recently not found on the search path, and the same
+       names in the order in which they were added */
+    private final Set<String> missing = ConcurrentHashMap.newKeySet();
+    private final Queue<String> missingOrder = new ConcurrentLinkedQueue<>();
+
+    /* incremented each time the search path changes */
+    private volatile int generation;
+
+    /**
+     * Creates a lookup cache for the given search path.  If {@code indexable}
+     * is false no package index is ever built, e.g. because URLs may be
+     * handled by a custom {@link URLStreamHandlerFactory}.
+     */
+    ClassPathLookupCache(URLClassPath ucp, boolean indexable) {
+        this.ucp = ucp;
+        this.indexable = indexable && PACKAGE_INDEX_ENABLED;
+    }
+
+    /**
+     * Returns true if the named class was recently looked up on the search
+     * path and not found.
+     */
+    boolean isMissing(String name) {
+        return negativeCacheEnabled() && missing.contains(name);
+    }
+
+    /**
+     * Returns the current generation of the search path, to be passed to
+     * {@link #recordMissing} for a lookup that starts now.
+     */
+    int generation() {
+        return generation;
+    }
+
+    /**
+     * Records that the named class could not be found on the search path,
+     * unless the search path has changed since the given generation was
+     * obtained.  If the cache is full the oldest entry is evicted.
+     */
+    void recordMissing(String name, int generation) {
+        if (!negativeCacheEnabled() || this.generation != generation) {
+            return;
+        }
+        if (missing.add(name)) {
+            missingOrder.add(name);
+            while (missing.size() > NEGATIVE_CACHE_SIZE) {
+                String oldest = missingOrder.poll();
+                if (oldest == null) {
+                    break;
+                }
+                missing.remove(oldest);
+            }
+        }
+        // invalidate() may have cleared the set before the add
+        if (this.generation != generation) {
+            missing.remove(name);
+        }
+    }
+
+    /**
+     * Returns true if the negative lookup cache may be used, which is when
+     * a complete package index of the search path has been built.
+     */
+    private boolean negativeCacheEnabled() {
+        if (NEGATIVE_CACHE_SIZE == 0 || !indexable) {
+            return false;
+        }
+        Set<String> pkgs = packages;
+        return pkgs != null && pkgs != NO_INDEX;
+    }
+
+    /**
+     * Returns false if the resource with the given '/'-separated path is
+     * known not to be on the search path, true if it may be, which is
+     * always the case until the package index has been built.
+     */
+    boolean mayContain(String path) {
+        Set<String> pkgs = packages;
+        if (!indexable || pkgs == null || pkgs == NO_INDEX) {
+            return true;
+        }
+        int i = path.lastIndexOf('/');
+        return pkgs.contains(i < 0 ? "" : path.substring(0, i));
+    }
+
+    /**
+     * Builds the package index, if it has not been built, after a lookup
+     * that started at the given generation walked the whole search path
+     * without finding its resource, and so opened every jar file on it.
+     * Must be called with sufficient privileges to read the jar files on
+     * the search path.
+     */
+    void searchPathWalked(int generation) {
+        if (!indexable || packages != null || this.generation != generation) {
+            return;
+        }
+        // listed without holding the lock; racing threads list each jar
+        // file at most once each and build equal indexes
+        Set<String> pkgs = new HashSet<>();
+        for (URL url : ucp.getURLs()) {
+            Set<String> jar = jarPackages(url);
+            if (jar == NO_INDEX) {
+                pkgs = NO_INDEX;
+                break;
+            }
+            pkgs.addAll(jar);
+        }
+        synchronized (this) {
+            if (packages == null && this.generation == generation) {
+                packages = pkgs;
+            }
+        }
+    }
+
+    /**
+     * Discards the package index and the negative lookup cache.  Called
+     * when the search path changes.  The packages listed for each jar file
+     * are kept, as the jar files themselves stay open in the loader.
+     */
+    void invalidate() {
+        synchronized (this) {
+            generation++;
+            packages = null;
+        }
+        missing.clear();
+        missingOrder.clear();
+    }
+
+    /**
+     * Returns the packages of the jar file at the given URL, listing them
+     * the first time, or NO_INDEX if the URL prevents a complete index.
+     */
+    private Set<String> jarPackages(URL url) {
+        String file = url.getFile();
+        if (!"file".equals(url.getProtocol())
+                || (url.getHost() != null && !url.getHost().isEmpty())
+                || !file.endsWith(".jar")) {
+            return NO_INDEX;
+        }
+        Set<String> pkgs = jarPackages.get(file);
+        if (pkgs == null) {
+            pkgs = listPackages(file);
+            jarPackages.putIfAbsent(file, pkgs);
+        }
+        return pkgs;
+    }
+
+    /**
+     * Lists the packages of the entries of the given jar file, or returns
+     * NO_INDEX if the jar file may pull further jar files into the search.
+     */
+    private static Set<String> listPackages(String file) {
+        Set<String> pkgs = new HashSet<>();
+        try (JarFile jar = new JarFile(
+                new File(ParseUtil.decode(file)), false)) {
+            if (jar.getEntry("META-INF/INDEX.LIST") != null) {
+                return NO_INDEX;
+            }
+            Manifest man = jar.getManifest();
+            if (man != null && man.getMainAttributes()
+                    .getValue(Attributes.Name.CLASS_PATH) != null) {
+                return NO_INDEX;
+            }
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                int i = name.lastIndexOf('/');
+                pkgs.add(i < 0 ? "" : name.substring(0, i));
+            }
+        } catch (IOException | SecurityException e) {
+            return NO_INDEX;
+        }
+        return pkgs;
+    }
+}
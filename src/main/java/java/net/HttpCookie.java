@@ -240,6 +240,20 @@ public final class HttpCookie implements Cloneable {
             return false;
     }
 
+    /*
+     * Returns the time, in milliseconds since the epoch, from which
+     * hasExpired() reports this cookie as expired, or Long.MAX_VALUE if
+     * it has no max-age.
+     */
+    long expiryTime() {
+        if (maxAge == 0) return whenCreated;
+        if (maxAge == MAX_AGE_UNSPECIFIED) return Long.MAX_VALUE;
+        if (maxAge < 0) return whenCreated;
+        if (maxAge >= (Long.MAX_VALUE - whenCreated) / 1000 - 1)
+            return Long.MAX_VALUE;
+        return whenCreated + (maxAge + 1) * 1000;
+    }
+
     /**
      * Specifies a comment that describes a cookie's purpose.
      * The comment is useful if the browser presents the cookie
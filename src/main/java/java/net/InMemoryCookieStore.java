@@ -32,39 +32,84 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A simple in-memory java.net.CookieStore implementation
  *
+ * <p> Cookies are indexed by their domain and by the uri they were added
+ * with, so that {@code get} only examines the cookies that can match the
+ * given uri, and {@code get} does not lock. A cookie's domain is matched
+ * against the host on label boundaries only, e.g. a cookie for domain
+ * {@code example.com} is never returned for host {@code badexample.com}.
+ * Cookies with a max-age are removed once they expire, in the order they
+ * expire, as the store is used.
+ *
  * @author Edward Wang
  * @since 1.6
  */
 class InMemoryCookieStore implements CookieStore {
-    // the in-memory representation of cookies
-    private List<HttpCookie> cookieJar = null;
-
-    // the cookies are indexed by its domain and associated uri (if present)
-    // CAUTION: when a cookie removed from main data structure (i.e. cookieJar),
-    //          it won't be cleared in domainIndex & uriIndex. Double-check the
-    //          presence of cookie when retrieve one form index store.
-    private Map<String, List<HttpCookie>> domainIndex = null;
-    private Map<URI, List<HttpCookie>> uriIndex = null;
+    // the in-memory representation of cookies, mapping each cookie to the
+    // entry of the equal cookie that is stored
+    private final Map<HttpCookie, Entry> cookieJar;
+
+    // the cookies are indexed by their domain (lower-cased, without a
+    // leading dot) and associated uri (if present). The index buckets are
+    // concurrent sets, so get() reads them without locking.
+    // CAUTION: an entry is briefly in an index but no longer in the main data
+    //          structure (i.e. cookieJar) while it is being removed.
+    //          Double-check the presence of the entry when retrieving one
+    //          from an index store.
+    private final Map<String, Set<Entry>> domainIndex;
+    private final Map<URI, Set<Entry>> uriIndex;
+
+    // the entries of cookies with a max-age, earliest expiry first; entries
+    // no longer in cookieJar are discarded when they reach the head
+    private final PriorityQueue<Entry> expiryQueue;
+
+    // the expiry time of the head of expiryQueue
+    private volatile long nextExpiry = Long.MAX_VALUE;
+
+    // guards all modifications
+    private final ReentrantLock lock;
+
+    // a stored cookie, with the index keys and expiry time it was stored with
+    private static final class Entry {
+        final HttpCookie cookie;
+        final String domain;
+        final URI uri;
+        long expiry;
+
+        Entry(HttpCookie cookie, URI uri) {
+            this.cookie = cookie;
+            this.domain = cookie.getDomain();
+            this.uri = uri;
+            this.expiry = cookie.expiryTime();
+        }
+    }
 
-    // use ReentrantLock instead of syncronized for scalability
-    private ReentrantLock lock = null;
+    private static final Comparator<Entry> EXPIRY_ORDER =
+        new Comparator<Entry>() {
+            public int compare(Entry e1, Entry e2) {
+                return Long.compare(e1.expiry, e2.expiry);
+            }
+        };
 
 
     /**
      * The default ctor
      */
     public InMemoryCookieStore() {
-        cookieJar = new ArrayList<HttpCookie>();
-        domainIndex = new HashMap<String, List<HttpCookie>>();
-        uriIndex = new HashMap<URI, List<HttpCookie>>();
+        cookieJar = new ConcurrentHashMap<HttpCookie, Entry>();
+        domainIndex = new ConcurrentHashMap<String, Set<Entry>>();
+        uriIndex = new ConcurrentHashMap<URI, Set<Entry>>();
+        expiryQueue = new PriorityQueue<Entry>(16, EXPIRY_ORDER);
 
         lock = new ReentrantLock(false);
     }
@@ -81,20 +126,34 @@ class InMemoryCookieStore implements CookieStore {
 
         lock.lock();
         try {
-            // remove the ole cookie if there has had one
-            cookieJar.remove(cookie);
+            expireCookies(System.currentTimeMillis());
+
+            // the old cookie if there has had one
+            Entry old = cookieJar.get(cookie);
 
             // add new cookie if it has a non-zero max-age
             if (cookie.getMaxAge() != 0) {
-                cookieJar.add(cookie);
+                Entry e = new Entry(cookie,
+                                    (uri != null) ? getEffectiveURI(uri) : null);
+                // replaces the old cookie in a single step for readers
+                cookieJar.put(cookie, e);
+                if (old != null) {
+                    removeIndexes(old);
+                }
                 // and add it to domain index
-                if (cookie.getDomain() != null) {
-                    addIndex(domainIndex, cookie.getDomain(), cookie);
+                if (e.domain != null) {
+                    addIndex(domainIndex, domainKey(e.domain), e);
                 }
-                if (uri != null) {
+                if (e.uri != null) {
                     // add it to uri index, too
-                    addIndex(uriIndex, getEffectiveURI(uri), cookie);
+                    addIndex(uriIndex, e.uri, e);
                 }
+                if (e.expiry != Long.MAX_VALUE) {
+                    expiryQueue.add(e);
+                    nextExpiry = expiryQueue.peek().expiry;
+                }
+            } else if (old != null) {
+                removeEntry(old);
             }
         } finally {
             lock.unlock();
@@ -115,16 +174,47 @@ class InMemoryCookieStore implements CookieStore {
             throw new NullPointerException("uri is null");
         }
 
+        tryExpireCookies();
         List<HttpCookie> cookies = new ArrayList<HttpCookie>();
         boolean secureLink = "https".equalsIgnoreCase(uri.getScheme());
-        lock.lock();
-        try {
-            // check domainIndex first
-            getInternal1(cookies, domainIndex, uri.getHost(), secureLink);
-            // check uriIndex then
-            getInternal2(cookies, uriIndex, getEffectiveURI(uri), secureLink);
-        } finally {
-            lock.unlock();
+        List<Entry> expired = null;
+        String host = uri.getHost();
+        if (host != null) {
+            // check domainIndex first, under every domain the host can
+            // domain-match: the host, each parent domain and for a host
+            // without a dot, .local and host.local
+            String key = domainKey(host);
+            expired = getInternal1(cookies, domainIndex.get(key), host,
+                                   secureLink, expired);
+            int dot = key.indexOf('.');
+            if (dot == -1) {
+                expired = getInternal1(cookies, domainIndex.get("local"), host,
+                                       secureLink, expired);
+                expired = getInternal1(cookies, domainIndex.get(key + ".local"),
+                                       host, secureLink, expired);
+            }
+            for (; dot != -1; dot = key.indexOf('.', dot + 1)) {
+                expired = getInternal1(cookies,
+                                       domainIndex.get(key.substring(dot + 1)),
+                                       host, secureLink, expired);
+            }
+        }
+        // check uriIndex then
+        expired = getInternal2(cookies, uriIndex.get(getEffectiveURI(uri)),
+                               secureLink, expired);
+
+        if (expired != null) {
+            // cookies whose max-age was shortened after they were added
+            lock.lock();
+            try {
+                for (Entry e : expired) {
+                    if (cookieJar.get(e.cookie) == e) {
+                        removeEntry(e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
         }
 
         return cookies;
@@ -134,22 +224,15 @@ class InMemoryCookieStore implements CookieStore {
      * Get all cookies in cookie store, except those have expired
      */
     public List<HttpCookie> getCookies() {
-        List<HttpCookie> rt;
-
-        lock.lock();
-        try {
-            Iterator<HttpCookie> it = cookieJar.iterator();
-            while (it.hasNext()) {
-                if (it.next().hasExpired()) {
-                    it.remove();
-                }
+        tryExpireCookies();
+        List<HttpCookie> rt = new ArrayList<HttpCookie>(cookieJar.size());
+        for (Entry e : cookieJar.values()) {
+            if (!e.cookie.hasExpired()) {
+                rt.add(e.cookie);
             }
-        } finally {
-            rt = Collections.unmodifiableList(cookieJar);
-            lock.unlock();
         }
 
-        return rt;
+        return Collections.unmodifiableList(rt);
     }
 
     /**
@@ -157,26 +240,8 @@ class InMemoryCookieStore implements CookieStore {
      * of this cookie store.
      */
     public List<URI> getURIs() {
-        List<URI> uris = new ArrayList<URI>();
-
-        lock.lock();
-        try {
-            Iterator<URI> it = uriIndex.keySet().iterator();
-            while (it.hasNext()) {
-                URI uri = it.next();
-                List<HttpCookie> cookies = uriIndex.get(uri);
-                if (cookies == null || cookies.size() == 0) {
-                    // no cookies list or an empty list associated with
-                    // this uri entry, delete it
-                    it.remove();
-                }
-            }
-        } finally {
-            uris.addAll(uriIndex.keySet());
-            lock.unlock();
-        }
-
-        return uris;
+        // empty index entries are removed as cookies are removed
+        return new ArrayList<URI>(uriIndex.keySet());
     }
 
 
@@ -192,7 +257,11 @@ class InMemoryCookieStore implements CookieStore {
         boolean modified = false;
         lock.lock();
         try {
-            modified = cookieJar.remove(ck);
+            Entry e = cookieJar.get(ck);
+            if (e != null) {
+                removeEntry(e);
+                modified = true;
+            }
         } finally {
             lock.unlock();
         }
@@ -213,6 +282,8 @@ class InMemoryCookieStore implements CookieStore {
             cookieJar.clear();
             domainIndex.clear();
             uriIndex.clear();
+            expiryQueue.clear();
+            nextExpiry = Long.MAX_VALUE;
         } finally {
             lock.unlock();
         }
@@ -277,104 +348,140 @@ class InMemoryCookieStore implements CookieStore {
         return false;
     }
 
-    private void getInternal1(List<HttpCookie> cookies, Map<String, List<HttpCookie>> cookieIndex,
-            String host, boolean secureLink) {
-        // Use a separate list to handle cookies that need to be removed so
-        // that there is no conflict with iterators.
-        ArrayList<HttpCookie> toRemove = new ArrayList<HttpCookie>();
-        for (Map.Entry<String, List<HttpCookie>> entry : cookieIndex.entrySet()) {
-            String domain = entry.getKey();
-            List<HttpCookie> lst = entry.getValue();
-            for (HttpCookie c : lst) {
-                if ((c.getVersion() == 0 && netscapeDomainMatches(domain, host)) ||
-                        (c.getVersion() == 1 && HttpCookie.domainMatches(domain, host))) {
-                    if ((cookieJar.indexOf(c) != -1)) {
-                        // the cookie still in main cookie store
-                        if (!c.hasExpired()) {
-                            // don't add twice and make sure it's the proper
-                            // security level
-                            if ((secureLink || !c.getSecure()) &&
-                                    !cookies.contains(c)) {
-                                cookies.add(c);
-                            }
-                        } else {
-                            toRemove.add(c);
-                        }
-                    } else {
-                        // the cookie has beed removed from main store,
-                        // so also remove it from domain indexed store
-                        toRemove.add(c);
-                    }
-                }
-            }
-            // Clear up the cookies that need to be removed
-            for (HttpCookie c : toRemove) {
-                lst.remove(c);
-                cookieJar.remove(c);
+    // the key under which cookies for the given domain are indexed
+    private static String domainKey(String domain) {
+        String key = domain.toLowerCase(Locale.ROOT);
+        return key.startsWith(".") ? key.substring(1) : key;
+    }
 
+    // @param cookies           [OUT] contains the found cookies
+    // @param indexed           the entries of one domain index key, or null
+    // @param expired           the expired entries found so far, or null
+    // @return                  the expired entries found so far, or null
+    private List<Entry> getInternal1(List<HttpCookie> cookies, Set<Entry> indexed,
+            String host, boolean secureLink, List<Entry> expired) {
+        if (indexed == null) {
+            return expired;
+        }
+        for (Entry e : indexed) {
+            HttpCookie c = e.cookie;
+            if ((c.getVersion() == 0 && netscapeDomainMatches(e.domain, host)) ||
+                    (c.getVersion() == 1 && HttpCookie.domainMatches(e.domain, host))) {
+                expired = addIfValid(cookies, e, secureLink, expired);
             }
-            toRemove.clear();
         }
+        return expired;
     }
 
     // @param cookies           [OUT] contains the found cookies
-    // @param cookieIndex       the index
-    // @param comparator        the prediction to decide whether or not
-    //                          a cookie in index should be returned
-    private <T> void getInternal2(List<HttpCookie> cookies,
-                                Map<T, List<HttpCookie>> cookieIndex,
-                                Comparable<T> comparator, boolean secureLink)
-    {
-        for (T index : cookieIndex.keySet()) {
-            if (comparator.compareTo(index) == 0) {
-                List<HttpCookie> indexedCookies = cookieIndex.get(index);
-                // check the list of cookies associated with this domain
-                if (indexedCookies != null) {
-                    Iterator<HttpCookie> it = indexedCookies.iterator();
-                    while (it.hasNext()) {
-                        HttpCookie ck = it.next();
-                        if (cookieJar.indexOf(ck) != -1) {
-                            // the cookie still in main cookie store
-                            if (!ck.hasExpired()) {
-                                // don't add twice
-                                if ((secureLink || !ck.getSecure()) &&
-                                        !cookies.contains(ck))
-                                    cookies.add(ck);
-                            } else {
-                                it.remove();
-                                cookieJar.remove(ck);
-                            }
-                        } else {
-                            // the cookie has beed removed from main store,
-                            // so also remove it from domain indexed store
-                            it.remove();
-                        }
-                    }
-                } // end of indexedCookies != null
-            } // end of comparator.compareTo(index) == 0
-        } // end of cookieIndex iteration
+    // @param indexed           the entries of the uri index key, or null
+    // @param expired           the expired entries found so far, or null
+    // @return                  the expired entries found so far, or null
+    private List<Entry> getInternal2(List<HttpCookie> cookies, Set<Entry> indexed,
+            boolean secureLink, List<Entry> expired) {
+        if (indexed != null) {
+            for (Entry e : indexed) {
+                expired = addIfValid(cookies, e, secureLink, expired);
+            }
+        }
+        return expired;
     }
 
-    // add 'cookie' indexed by 'index' into 'indexStore'
-    private <T> void addIndex(Map<T, List<HttpCookie>> indexStore,
-                              T index,
-                              HttpCookie cookie)
-    {
-        if (index != null) {
-            List<HttpCookie> cookies = indexStore.get(index);
-            if (cookies != null) {
-                // there may already have the same cookie, so remove it first
-                cookies.remove(cookie);
+    private List<Entry> addIfValid(List<HttpCookie> cookies, Entry e,
+            boolean secureLink, List<Entry> expired) {
+        HttpCookie c = e.cookie;
+        if (cookieJar.get(c) == e) {
+            // the cookie still in main cookie store
+            if (!c.hasExpired()) {
+                // don't add twice and make sure it's the proper
+                // security level
+                if ((secureLink || !c.getSecure()) && !cookies.contains(c)) {
+                    cookies.add(c);
+                }
+            } else {
+                if (expired == null) {
+                    expired = new ArrayList<Entry>();
+                }
+                expired.add(e);
+            }
+        }
+        return expired;
+    }
 
-                cookies.add(cookie);
+    // expire cookies if one is due and no other thread holds the lock
+    private void tryExpireCookies() {
+        long now = System.currentTimeMillis();
+        if (now >= nextExpiry && lock.tryLock()) {
+            try {
+                expireCookies(now);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // remove the cookies that expired by 'now'; called with lock held
+    private void expireCookies(long now) {
+        Entry e;
+        while ((e = expiryQueue.peek()) != null && e.expiry <= now) {
+            expiryQueue.poll();
+            if (cookieJar.get(e.cookie) != e) {
+                // removed or replaced since
+                continue;
+            }
+            if (e.cookie.hasExpired()) {
+                removeEntry(e);
             } else {
-                cookies = new ArrayList<HttpCookie>();
-                cookies.add(cookie);
-                indexStore.put(index, cookies);
+                // the max-age was changed after the cookie was added
+                e.expiry = e.cookie.expiryTime();
+                if (e.expiry != Long.MAX_VALUE) {
+                    expiryQueue.add(e);
+                }
             }
         }
+        nextExpiry = (e != null) ? e.expiry : Long.MAX_VALUE;
     }
 
+    // remove 'e' from the main store and its indexes; called with lock held.
+    // It stays in expiryQueue until it reaches the head.
+    private void removeEntry(Entry e) {
+        cookieJar.remove(e.cookie);
+        removeIndexes(e);
+    }
+
+    // remove 'e' from the indexes; called with lock held
+    private void removeIndexes(Entry e) {
+        if (e.domain != null) {
+            removeIndex(domainIndex, domainKey(e.domain), e);
+        }
+        if (e.uri != null) {
+            removeIndex(uriIndex, e.uri, e);
+        }
+    }
+
+    // add 'e' indexed by 'index' into 'indexStore'
+    private static <T> void addIndex(Map<T, Set<Entry>> indexStore,
+                                     T index,
+                                     Entry e)
+    {
+        Set<Entry> entries = indexStore.get(index);
+        if (entries == null) {
+            entries = ConcurrentHashMap.newKeySet();
+            indexStore.put(index, entries);
+        }
+        entries.add(e);
+    }
+
+    // remove 'e' indexed by 'index' from 'indexStore'
+    private static <T> void removeIndex(Map<T, Set<Entry>> indexStore,
+                                        T index,
+                                        Entry e)
+    {
+        Set<Entry> entries = indexStore.get(index);
+        if (entries != null && entries.remove(e) && entries.isEmpty()) {
+            indexStore.remove(index);
+        }
+    }
 
     //
     // for cookie purpose, the effective uri should only be http://host
@@ -25,15 +25,28 @@
 
 package java.net;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.Random;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.ArrayList;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.security.AccessControlContext;
 import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.io.BufferedReader;
+import java.io.FileReader;
 import java.io.ObjectStreamException;
 import java.io.ObjectStreamField;
 import java.io.IOException;
@@ -734,13 +747,47 @@ class InetAddress implements java.io.Serializable {
 
     private static Cache negativeCache = new Cache(Cache.Type.Negative);
 
-    private static boolean addressCacheInit = false;
+    private static volatile boolean addressCacheInit = false;
 
     static InetAddress[]    unknown_array; // put THIS in cache
 
     static InetAddressImpl  impl;
 
-    private static final HashMap<String, Void> lookupTable = new HashMap<>();
+    // Hosts being looked up, each with a latch that is released when the
+    // lookup completes
+    private static final ConcurrentHashMap<String, CountDownLatch> lookupTable
+        = new ConcurrentHashMap<>();
+
+    // Hosts with a background refresh submitted or running, so that a
+    // stale entry is refreshed by one task at a time
+    private static final Set<String> refreshing =
+        ConcurrentHashMap.<String>newKeySet();
+
+    /*
+     * Number of seconds after expiry during which a positive cache entry
+     * is still returned while it is refreshed in the background; 0
+     * disables stale entries.  Read on first use, like the other cache
+     * policies, from the security property "networkaddress.cache.stale.ttl"
+     * or else the system property "sun.net.inetaddr.stale.ttl".
+     */
+    private static final class StalePolicy {
+        static final long staleTTL = AccessController.doPrivileged(
+            new PrivilegedAction<Long>() {
+                public Long run() {
+                    String val = java.security.Security.getProperty(
+                        "networkaddress.cache.stale.ttl");
+                    if (val == null) {
+                        val = System.getProperty("sun.net.inetaddr.stale.ttl");
+                    }
+                    if (val != null) {
+                        try {
+                            return Math.max(0L, Long.parseLong(val.trim()));
+                        } catch (NumberFormatException ignore) { }
+                    }
+                    return 0L;
+                }
+            });
+    }
 
     /**
      * Represents a cache entry
@@ -752,17 +799,21 @@ class InetAddress implements java.io.Serializable {
             this.expiration = expiration;
         }
 
-        InetAddress[] addresses;
-        long expiration;
+        final InetAddress[] addresses;
+        final long expiration;
     }
 
     /**
      * A cache that manages entries based on a policy specified
-     * at creation time.
+     * at creation time.  Entries are read without locking.
      */
     static final class Cache {
-        private LinkedHashMap<String, CacheEntry> cache;
-        private Type type;
+        // Expired entries are purged every PURGE_INTERVAL puts
+        private static final int PURGE_INTERVAL = 64;
+
+        private final ConcurrentHashMap<String, CacheEntry> cache;
+        private final Type type;
+        private final AtomicInteger puts = new AtomicInteger();
 
         enum Type {Positive, Negative};
 
@@ -771,7 +822,7 @@ class InetAddress implements java.io.Serializable {
          */
         public Cache(Type type) {
             this.type = type;
-            cache = new LinkedHashMap<String, CacheEntry>();
+            cache = new ConcurrentHashMap<String, CacheEntry>();
         }
 
         private int getPolicy() {
@@ -793,31 +844,20 @@ class InetAddress implements java.io.Serializable {
                 return this;
             }
 
-            // purge any expired entries
-
-            if (policy != InetAddressCachePolicy.FOREVER) {
+            // purge expired entries every so often
 
-                // As we iterate in insertion order we can
-                // terminate when a non-expired entry is found.
-                LinkedList<String> expired = new LinkedList<>();
+            if (policy != InetAddressCachePolicy.FOREVER &&
+                puts.incrementAndGet() % PURGE_INTERVAL == 0) {
                 long now = System.currentTimeMillis();
-                for (String key : cache.keySet()) {
-                    CacheEntry entry = cache.get(key);
-
-                    if (entry.expiration >= 0 && entry.expiration < now) {
-                        expired.add(key);
-                    } else {
-                        break;
+                for (java.util.Map.Entry<String, CacheEntry> e : cache.entrySet()) {
+                    if (isDead(e.getValue(), now)) {
+                        cache.remove(e.getKey(), e.getValue());
                     }
                 }
-
-                for (String key : expired) {
-                    cache.remove(key);
-                }
             }
 
             // create new entry and add it to the cache
-            // -- as a HashMap replaces existing entries we
+            // -- as a map replaces existing entries we
             //    don't need to explicitly check if there is
             //    already an entry for this host.
             long expiration;
@@ -842,17 +882,45 @@ class InetAddress implements java.io.Serializable {
             }
             CacheEntry entry = cache.get(host);
 
-            // check if entry has expired
+            // check if entry has expired; keep it while it may be
+            // returned as a stale entry
             if (entry != null && policy != InetAddressCachePolicy.FOREVER) {
-                if (entry.expiration >= 0 &&
-                    entry.expiration < System.currentTimeMillis()) {
-                    cache.remove(host);
+                long now = System.currentTimeMillis();
+                if (entry.expiration >= 0 && entry.expiration < now) {
+                    if (isDead(entry, now)) {
+                        cache.remove(host, entry);
+                    }
                     entry = null;
                 }
             }
 
             return entry;
         }
+
+        /**
+         * Query the cache for an expired entry for the specific host
+         * that is still within the stale period.
+         */
+        public CacheEntry getStale(String host) {
+            if (type != Type.Positive || StalePolicy.staleTTL == 0) {
+                return null;
+            }
+            CacheEntry entry = cache.get(host);
+            if (entry != null && entry.expiration >= 0 &&
+                !isDead(entry, System.currentTimeMillis())) {
+                return entry;
+            }
+            return null;
+        }
+
+        // Tells whether an entry is expired and past any stale period
+        private boolean isDead(CacheEntry entry, long now) {
+            if (entry.expiration < 0) {
+                return false;
+            }
+            long stale = (type == Type.Positive) ? StalePolicy.staleTTL * 1000 : 0;
+            return entry.expiration + stale < now;
+        }
     }
 
     /*
@@ -860,17 +928,21 @@ class InetAddress implements java.io.Serializable {
      * unknown array with no expiry.
      */
     private static void cacheInitIfNeeded() {
-        assert Thread.holdsLock(addressCache);
         if (addressCacheInit) {
             return;
         }
-        unknown_array = new InetAddress[1];
-        unknown_array[0] = impl.anyLocalAddress();
+        synchronized (addressCache) {
+            if (addressCacheInit) {
+                return;
+            }
+            unknown_array = new InetAddress[1];
+            unknown_array[0] = impl.anyLocalAddress();
 
-        addressCache.put(impl.anyLocalAddress().getHostName(),
-                         unknown_array);
+            addressCache.put(impl.anyLocalAddress().getHostName(),
+                             unknown_array);
 
-        addressCacheInit = true;
+            addressCacheInit = true;
+        }
     }
 
     /*
@@ -880,13 +952,11 @@ class InetAddress implements java.io.Serializable {
                                        InetAddress[] addresses,
                                        boolean success) {
         hostname = hostname.toLowerCase();
-        synchronized (addressCache) {
-            cacheInitIfNeeded();
-            if (success) {
-                addressCache.put(hostname, addresses);
-            } else {
-                negativeCache.put(hostname, addresses);
-            }
+        cacheInitIfNeeded();
+        if (success) {
+            addressCache.put(hostname, addresses);
+        } else {
+            negativeCache.put(hostname, addresses);
         }
     }
 
@@ -899,23 +969,169 @@ class InetAddress implements java.io.Serializable {
 
         // search both positive & negative caches
 
-        synchronized (addressCache) {
-            cacheInitIfNeeded();
+        cacheInitIfNeeded();
 
-            CacheEntry entry = addressCache.get(hostname);
-            if (entry == null) {
-                entry = negativeCache.get(hostname);
-            }
+        CacheEntry entry = addressCache.get(hostname);
+        if (entry == null) {
+            entry = negativeCache.get(hostname);
+        }
 
-            if (entry != null) {
-                return entry.addresses;
-            }
+        if (entry != null) {
+            return entry.addresses;
+        }
+
+        // an expired positive entry may be returned while it is refreshed
+        entry = addressCache.getStale(hostname);
+        if (entry != null) {
+            refreshInBackground(hostname);
+            return entry.addresses;
         }
 
         // not found
         return null;
     }
 
+    /*
+     * Looks up the given host in the background, unless a lookup or a
+     * refresh of it is already in progress, and replaces its cache entry
+     * if the lookup succeeds.  The host is claimed in the refreshing set
+     * before the task is submitted and released when the task ends.
+     */
+    private static void refreshInBackground(final String hostname) {
+        if (lookupTable.containsKey(hostname) || !refreshing.add(hostname)) {
+            return;
+        }
+        try {
+            Resolver.execute(new Runnable() {
+                public void run() {
+                    try {
+                        lookupAndCache(hostname, null, false);
+                    } catch (UnknownHostException ignore) {
+                        // the stale entry is kept until it expires
+                    } finally {
+                        refreshing.remove(hostname);
+                    }
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            refreshing.remove(hostname);
+            throw e;
+        }
+    }
+
+    /*
+     * Executes asynchronous lookups and background refreshes on a small
+     * pool of daemon threads.  The number of threads is given by the
+     * property "sun.net.inetaddr.resolverThreads" and defaults to 4.
+     */
+    private static final class Resolver {
+        private static final ExecutorService executor =
+            AccessController.doPrivileged(new PrivilegedAction<ExecutorService>() {
+                public ExecutorService run() {
+                    int n = Math.max(1, Integer.getInteger(
+                        "sun.net.inetaddr.resolverThreads", 4));
+                    ThreadFactory factory = new ThreadFactory() {
+                        private final AtomicInteger count = new AtomicInteger();
+                        public Thread newThread(Runnable r) {
+                            Thread t = new Thread(r, "InetAddress-Resolver-" +
+                                                  count.incrementAndGet());
+                            t.setDaemon(true);
+                            t.setContextClassLoader(null);
+                            return t;
+                        }
+                    };
+                    ThreadPoolExecutor e = new ThreadPoolExecutor(
+                        n, n, 60L, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(), factory);
+                    e.allowCoreThreadTimeOut(true);
+                    return e;
+                }
+            });
+
+        static void execute(Runnable task) {
+            executor.execute(task);
+        }
+    }
+
+    /**
+     * A name service that looks up hosts in a file in the format of
+     * /etc/hosts, named by the "jdk.net.hosts.file" property.  Each line
+     * holds an IP address followed by one or more host names; text after a
+     * '#' is ignored.
+     */
+    private static final class HostsFileNameService implements NameService {
+        private final String hostsFile;
+
+        HostsFileNameService(String hostsFile) {
+            this.hostsFile = hostsFile;
+        }
+
+        private List<String[]> readEntries() throws UnknownHostException {
+            try {
+                return AccessController.doPrivileged(
+                    new PrivilegedExceptionAction<List<String[]>>() {
+                        public List<String[]> run() throws IOException {
+                            List<String[]> entries = new ArrayList<>();
+                            try (BufferedReader r = new BufferedReader(
+                                     new FileReader(hostsFile))) {
+                                String line;
+                                while ((line = r.readLine()) != null) {
+                                    int hash = line.indexOf('#');
+                                    if (hash >= 0) {
+                                        line = line.substring(0, hash);
+                                    }
+                                    String[] tokens = line.trim().split("\\s+");
+                                    if (tokens.length >= 2) {
+                                        entries.add(tokens);
+                                    }
+                                }
+                            }
+                            return entries;
+                        }
+                    });
+            } catch (PrivilegedActionException e) {
+                throw new UnknownHostException("Unable to read " + hostsFile +
+                                               ": " + e.getException());
+            }
+        }
+
+        private static byte[] parse(String addr) {
+            byte[] b = IPAddressUtil.textToNumericFormatV4(addr);
+            return (b != null) ? b : IPAddressUtil.textToNumericFormatV6(addr);
+        }
+
+        public InetAddress[] lookupAllHostAddr(String host)
+            throws UnknownHostException {
+            List<InetAddress> addresses = new ArrayList<>();
+            for (String[] entry : readEntries()) {
+                for (int i = 1; i < entry.length; i++) {
+                    if (entry[i].equalsIgnoreCase(host)) {
+                        byte[] addr = parse(entry[0]);
+                        if (addr != null) {
+                            addresses.add(InetAddress.getByAddress(host, addr));
+                        }
+                        break;
+                    }
+                }
+            }
+            if (addresses.isEmpty()) {
+                throw new UnknownHostException(host + ": not found in " +
+                                               hostsFile);
+            }
+            return addresses.toArray(new InetAddress[addresses.size()]);
+        }
+
+        public String getHostByAddr(byte[] addr) throws UnknownHostException {
+            for (String[] entry : readEntries()) {
+                byte[] b = parse(entry[0]);
+                if (b != null && java.util.Arrays.equals(b, addr)) {
+                    return entry[1];
+                }
+            }
+            throw new UnknownHostException("Address not found in " + hostsFile);
+        }
+    }
+
     private static NameService createNSProvider(String provider) {
         if (provider == null)
             return null;
@@ -978,7 +1194,15 @@ class InetAddress implements java.io.Serializable {
         String propPrefix = "sun.net.spi.nameservice.provider.";
         int n = 1;
         nameServices = new ArrayList<NameService>();
-        provider = AccessController.doPrivileged(
+
+        // a hosts file replaces all other name services
+        String hostsFile = AccessController.doPrivileged(
+                new GetPropertyAction("jdk.net.hosts.file"));
+        if (hostsFile != null) {
+            nameServices.add(new HostsFileNameService(hostsFile));
+        }
+
+        provider = (hostsFile != null) ? null : AccessController.doPrivileged(
                 new GetPropertyAction(propPrefix + n));
         while (provider != null) {
             NameService ns = createNSProvider(provider);
@@ -1127,6 +1351,61 @@ class InetAddress implements java.io.Serializable {
         return getAllByName(host, null);
     }
 
+    /**
+     * Given the name of a host, asynchronously looks up its IP addresses,
+     * based on the configured name service on the system.
+     *
+     * <p> The host name is interpreted as by {@link #getAllByName(String)}.
+     * If the addresses of the host are cached then the returned future is
+     * already completed.  Otherwise the lookup is performed by a thread
+     * other than the caller's, and concurrent lookups of the same host share
+     * one request to the name service.  The future completes exceptionally
+     * with the {@code UnknownHostException} or {@code SecurityException}
+     * that {@code getAllByName} would have thrown.
+     *
+     * <p> If there is a security manager, the lookup is performed with the
+     * access control context of the caller.
+     *
+     * @param      host   the name of the host, or {@code null}.
+     * @return     a future that completes with an array of all the IP
+     *             addresses for the given host name.
+     *
+     * @see #getAllByName(String)
+     * @since 9
+     */
+    public static CompletableFuture<InetAddress[]> getAllByNameAsync(final String host) {
+        final CompletableFuture<InetAddress[]> result = new CompletableFuture<>();
+        if (host != null && !host.isEmpty() &&
+            System.getSecurityManager() == null) {
+            InetAddress[] cached = getCachedAddresses(host);
+            if (cached == unknown_array) {
+                result.completeExceptionally(new UnknownHostException(host));
+                return result;
+            } else if (cached != null) {
+                result.complete(cached.clone());
+                return result;
+            }
+        }
+        final AccessControlContext acc = AccessController.getContext();
+        Resolver.execute(new Runnable() {
+            public void run() {
+                try {
+                    result.complete(AccessController.doPrivileged(
+                        new PrivilegedExceptionAction<InetAddress[]>() {
+                            public InetAddress[] run() throws UnknownHostException {
+                                return getAllByName(host, null);
+                            }
+                        }, acc));
+                } catch (PrivilegedActionException e) {
+                    result.completeExceptionally(e.getException());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            }
+        });
+        return result;
+    }
+
     private static InetAddress[] getAllByName(String host, InetAddress reqAddr)
         throws UnknownHostException {
 
@@ -1285,6 +1564,18 @@ class InetAddress implements java.io.Serializable {
 
     private static InetAddress[] getAddressesFromNameService(String host, InetAddress reqAddr)
         throws UnknownHostException
+    {
+        return lookupAndCache(host, reqAddr, true);
+    }
+
+    /*
+     * Looks up the addresses of the given host with the name services and
+     * caches them.  A failed lookup is only cached if cacheFailure is true;
+     * background refreshes leave the stale entry in place instead.
+     */
+    private static InetAddress[] lookupAndCache(String host, InetAddress reqAddr,
+                                                boolean cacheFailure)
+        throws UnknownHostException
     {
         InetAddress[] addresses = null;
         boolean success = false;
@@ -1360,7 +1651,9 @@ class InetAddress implements java.io.Serializable {
                     }
                 }
                 // Cache the address.
-                cacheAddresses(host, addresses, success);
+                if (success || cacheFailure) {
+                    cacheAddresses(host, addresses, success);
+                }
 
                 if (!success && ex != null)
                     throw ex;
@@ -1377,45 +1670,50 @@ class InetAddress implements java.io.Serializable {
 
 
     private static InetAddress[] checkLookupTable(String host) {
-        synchronized (lookupTable) {
-            // If the host isn't in the lookupTable, add it in the
-            // lookuptable and return null. The caller should do
-            // the lookup.
-            if (lookupTable.containsKey(host) == false) {
-                lookupTable.put(host, null);
-                return null;
-            }
+        CountDownLatch latch = new CountDownLatch(1);
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                // If the host isn't in the lookupTable, add it in the
+                // lookuptable and return null. The caller should do
+                // the lookup.
+                CountDownLatch other = lookupTable.putIfAbsent(host, latch);
+                if (other == null) {
+                    return null;
+                }
 
-            // If the host is in the lookupTable, it means that another
-            // thread is trying to look up the addresses of this host.
-            // This thread should wait.
-            while (lookupTable.containsKey(host)) {
-                try {
-                    lookupTable.wait();
-                } catch (InterruptedException e) {
+                // If the host is in the lookupTable, it means that another
+                // thread is trying to look up the addresses of this host.
+                // This thread should wait.
+                for (;;) {
+                    try {
+                        other.await();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
                 }
-            }
-        }
 
-        // The other thread has finished looking up the addresses of
-        // the host. This thread should retry to get the addresses
-        // from the addressCache. If it doesn't get the addresses from
-        // the cache, it will try to look up the addresses itself.
-        InetAddress[] addresses = getCachedAddresses(host);
-        if (addresses == null) {
-            synchronized (lookupTable) {
-                lookupTable.put(host, null);
-                return null;
+                // The other thread has finished looking up the addresses of
+                // the host. This thread should retry to get the addresses
+                // from the addressCache. If it doesn't get the addresses from
+                // the cache, it will try to look up the addresses itself.
+                InetAddress[] addresses = getCachedAddresses(host);
+                if (addresses != null) {
+                    return addresses;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
             }
         }
-
-        return addresses;
     }
 
     private static void updateLookupTable(String host) {
-        synchronized (lookupTable) {
-            lookupTable.remove(host);
-            lookupTable.notifyAll();
+        CountDownLatch latch = lookupTable.remove(host);
+        if (latch != null) {
+            latch.countDown();
         }
     }
 
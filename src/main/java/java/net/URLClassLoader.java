@@ -75,6 +75,9 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
     /* The search path for classes and resources */
     private final URLClassPath ucp;
 
+    /* Package index and negative cache for class lookups on ucp */
+    private final ClassPathLookupCache lookupCache;
+
     /* The context to be used when loading classes and resources */
     private final AccessControlContext acc;
 
@@ -106,6 +109,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = AccessController.getContext();
         ucp = new URLClassPath(urls, acc);
+        lookupCache = new ClassPathLookupCache(ucp, true);
     }
 
     URLClassLoader(URL[] urls, ClassLoader parent,
@@ -118,6 +122,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = acc;
         ucp = new URLClassPath(urls, acc);
+        lookupCache = new ClassPathLookupCache(ucp, true);
     }
 
     /**
@@ -150,6 +155,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = AccessController.getContext();
         ucp = new URLClassPath(urls, acc);
+        lookupCache = new ClassPathLookupCache(ucp, true);
     }
 
     URLClassLoader(URL[] urls, AccessControlContext acc) {
@@ -161,6 +167,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = acc;
         ucp = new URLClassPath(urls, acc);
+        lookupCache = new ClassPathLookupCache(ucp, true);
     }
 
     /**
@@ -194,6 +201,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         acc = AccessController.getContext();
         ucp = new URLClassPath(urls, factory, acc);
+        lookupCache = new ClassPathLookupCache(ucp, false);
     }
 
     /* A map (used as a set) to keep track of closeable local resources
@@ -331,6 +339,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
      */
     protected void addURL(URL url) {
         ucp.addURL(url);
+        lookupCache.invalidate();
     }
 
     /**
@@ -357,12 +366,19 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
     protected Class<?> findClass(final String name)
         throws ClassNotFoundException
     {
+        if (lookupCache.isMissing(name)) {
+            throw new ClassNotFoundException(name);
+        }
+        final int generation = lookupCache.generation();
         final Class<?> result;
         try {
             result = AccessController.doPrivileged(
                 new PrivilegedExceptionAction<Class<?>>() {
                     public Class<?> run() throws ClassNotFoundException {
                         String path = name.replace('.', '/').concat(".class");
+                        if (!lookupCache.mayContain(path)) {
+                            return null;
+                        }
                         Resource res = ucp.getResource(path, false);
                         if (res != null) {
                             try {
@@ -371,6 +387,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
                                 throw new ClassNotFoundException(name, e);
                             }
                         } else {
+                            lookupCache.searchPathWalked(generation);
                             return null;
                         }
                     }
@@ -379,6 +396,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
             throw (ClassNotFoundException) pae.getException();
         }
         if (result == null) {
+            lookupCache.recordMissing(name, generation);
             throw new ClassNotFoundException(name);
         }
         return result;
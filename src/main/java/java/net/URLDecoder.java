@@ -26,6 +26,8 @@
 package java.net;
 
 import java.io.*;
+import java.nio.charset.Charset;
+import java.util.Objects;
 
 /**
  * Utility class for HTML form decoding. This class contains static methods
@@ -204,4 +206,130 @@ public class URLDecoder {
 
         return (needToChange? sb.toString() : s);
     }
+
+    /**
+     * Decodes an {@code application/x-www-form-urlencoded} string using a
+     * specific {@linkplain java.nio.charset.Charset Charset}.
+     * The supplied charset is used to determine
+     * what characters are represented by any consecutive sequences of the
+     * form "<i>{@code %xy}</i>".  If the string contains neither
+     * "{@code +}" nor "{@code %}" then {@code s} itself is returned.
+     * <p>
+     * <em><strong>Note:</strong> The <a href=
+     * "http://www.w3.org/TR/html40/appendix/notes.html#non-ascii-chars">
+     * World Wide Web Consortium Recommendation</a> states that
+     * UTF-8 should be used. Not doing so may introduce
+     * incompatibilities.</em>
+     *
+     * @param s the {@code String} to decode
+     * @param charset the given charset
+     * @return the newly decoded {@code String}
+     * @throws NullPointerException if {@code s} or {@code charset} is {@code null}
+     * @throws IllegalArgumentException if the implementation encounters illegal
+     * characters
+     * @see URLEncoder#encode(java.lang.String, java.nio.charset.Charset)
+     * @since 9
+     */
+    public static String decode(String s, Charset charset) {
+        Objects.requireNonNull(charset, "charset");
+
+        int numChars = s.length();
+        int i = 0;
+        while (i < numChars) {
+            char c = s.charAt(i);
+            if (c == '+' || c == '%')
+                break;
+            i++;
+        }
+        if (i == numChars)
+            return s;
+
+        StringBuilder sb = new StringBuilder(numChars);
+        sb.append(s, 0, i);
+        try {
+            decode(s, i, charset, sb);
+        } catch (IOException e) {
+            // StringBuilder does not throw IOException
+            throw new InternalError(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Decodes an {@code application/x-www-form-urlencoded} character
+     * sequence using a specific {@linkplain java.nio.charset.Charset
+     * Charset}, appending the result to the given {@code Appendable}.
+     *
+     * @param s the characters to decode
+     * @param charset the given charset
+     * @param out the {@code Appendable} to which the result is appended
+     * @throws IOException if {@code out} throws an {@code IOException}
+     * @throws NullPointerException if any argument is {@code null}
+     * @throws IllegalArgumentException if the implementation encounters illegal
+     * characters; the part of the result that precedes them may already
+     * have been appended
+     * @see URLEncoder#encode(java.lang.CharSequence, java.nio.charset.Charset,
+     *      java.lang.Appendable)
+     * @since 9
+     */
+    public static void decode(CharSequence s, Charset charset, Appendable out)
+        throws IOException {
+        Objects.requireNonNull(s, "s");
+        Objects.requireNonNull(charset, "charset");
+        Objects.requireNonNull(out, "out");
+        decode(s, 0, charset, out);
+    }
+
+    /*
+     * Decodes s from index i onwards into out.  Escapes are converted
+     * without creating substrings.
+     */
+    private static void decode(CharSequence s, int i, Charset charset,
+                               Appendable out) throws IOException {
+        int numChars = s.length();
+        byte[] bytes = null;
+        while (i < numChars) {
+            char c = s.charAt(i);
+            switch (c) {
+            case '+':
+                out.append(' ');
+                i++;
+                break;
+            case '%':
+                // (numChars-i)/3 is an upper bound for the number
+                // of remaining bytes
+                if (bytes == null)
+                    bytes = new byte[(numChars-i)/3];
+                int pos = 0;
+
+                while ( ((i+2) < numChars) &&
+                        (c=='%')) {
+                    int hi = Character.digit(s.charAt(i+1), 16);
+                    int lo = Character.digit(s.charAt(i+2), 16);
+                    if (hi < 0 || lo < 0)
+                        throw new IllegalArgumentException(
+                            "URLDecoder: Illegal hex characters in escape (%) pattern - "
+                            + s.subSequence(i+1, i+3));
+                    bytes[pos++] = (byte) ((hi << 4) | lo);
+                    i += 3;
+                    if (i < numChars)
+                        c = s.charAt(i);
+                }
+
+                // A trailing, incomplete byte encoding such as
+                // "%x" will cause an exception to be thrown
+
+                if ((i < numChars) && (c=='%'))
+                    throw new IllegalArgumentException(
+                     "URLDecoder: Incomplete trailing escape (%) pattern");
+
+                out.append(new String(bytes, 0, pos, charset));
+                break;
+            default:
+                out.append(c);
+                i++;
+                break;
+            }
+        }
+    }
 }
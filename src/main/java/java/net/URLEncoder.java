@@ -30,11 +30,14 @@ import java.io.BufferedWriter;
 import java.io.OutputStreamWriter;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.io.CharArrayWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException ;
 import java.util.BitSet;
+import java.util.Objects;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import sun.security.action.GetBooleanAction;
@@ -200,10 +203,7 @@ public class URLEncoder {
     public static String encode(String s, String enc)
         throws UnsupportedEncodingException {
 
-        boolean needToChange = false;
-        StringBuffer out = new StringBuffer(s.length());
         Charset charset;
-        CharArrayWriter charArrayWriter = new CharArrayWriter();
 
         if (enc == null)
             throw new NullPointerException("charsetName");
@@ -216,77 +216,193 @@ public class URLEncoder {
             throw new UnsupportedEncodingException(enc);
         }
 
-        for (int i = 0; i < s.length();) {
-            int c = (int) s.charAt(i);
-            //System.out.println("Examining character: " + c);
+        return encode(s, charset);
+    }
+
+    /**
+     * Translates a string into {@code application/x-www-form-urlencoded}
+     * format using a specific {@linkplain java.nio.charset.Charset Charset}.
+     * This method uses the supplied charset to obtain the bytes for unsafe
+     * characters.  If no character needs to be translated then {@code s}
+     * itself is returned.
+     * <p>
+     * <em><strong>Note:</strong> The <a href=
+     * "http://www.w3.org/TR/html40/appendix/notes.html#non-ascii-chars">
+     * World Wide Web Consortium Recommendation</a> states that
+     * UTF-8 should be used. Not doing so may introduce
+     * incompatibilities.</em>
+     *
+     * @param   s   {@code String} to be translated.
+     * @param   charset the given charset
+     * @return  the translated {@code String}.
+     * @throws  NullPointerException if {@code s} or {@code charset} is {@code null}.
+     * @see URLDecoder#decode(java.lang.String, java.nio.charset.Charset)
+     * @since 9
+     */
+    public static String encode(String s, Charset charset) {
+        Objects.requireNonNull(charset, "charset");
+
+        int len = s.length();
+        int i = 0;
+        while (i < len) {
+            char c = s.charAt(i);
+            if (c == ' ' || !dontNeedEncoding.get(c))
+                break;
+            i++;
+        }
+        if (i == len)
+            return s;
+
+        StringBuilder out = new StringBuilder(len + 16);
+        out.append(s, 0, i);
+        try {
+            encode(s, i, charset, out);
+        } catch (IOException e) {
+            // StringBuilder does not throw IOException
+            throw new InternalError(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Translates a character sequence into
+     * {@code application/x-www-form-urlencoded} format using a specific
+     * {@linkplain java.nio.charset.Charset Charset}, appending the result to
+     * the given {@code Appendable}.  No intermediate string is created.
+     *
+     * @param   s   the characters to be translated.
+     * @param   charset the given charset
+     * @param   out the {@code Appendable} to which the result is appended
+     * @throws  IOException if {@code out} throws an {@code IOException}.
+     * @throws  NullPointerException if any argument is {@code null}.
+     * @see URLDecoder#decode(java.lang.CharSequence, java.nio.charset.Charset,
+     *      java.lang.Appendable)
+     * @since 9
+     */
+    public static void encode(CharSequence s, Charset charset, Appendable out)
+        throws IOException {
+        Objects.requireNonNull(s, "s");
+        Objects.requireNonNull(charset, "charset");
+        Objects.requireNonNull(out, "out");
+        encode(s, 0, charset, out);
+    }
+
+    /**
+     * Translates a character sequence into
+     * {@code application/x-www-form-urlencoded} format using a specific
+     * {@linkplain java.nio.charset.Charset Charset}, writing the result as
+     * US-ASCII bytes into the given buffer, starting at its current
+     * position.  The buffer's position is advanced by the number of bytes
+     * written.
+     *
+     * @param   s   the characters to be translated.
+     * @param   charset the given charset
+     * @param   dst the buffer into which the result is written
+     * @return  the number of bytes written.
+     * @throws  java.nio.BufferOverflowException if there is insufficient
+     *          space in the buffer; the buffer then holds the part of the
+     *          result that fitted.
+     * @throws  java.nio.ReadOnlyBufferException if the buffer is read-only.
+     * @throws  NullPointerException if any argument is {@code null}.
+     * @since 9
+     */
+    public static int encode(CharSequence s, Charset charset, final ByteBuffer dst) {
+        Objects.requireNonNull(dst, "dst");
+        int start = dst.position();
+        Appendable out = new Appendable() {
+            public Appendable append(char c) {
+                dst.put((byte)c);
+                return this;
+            }
+            public Appendable append(CharSequence csq) {
+                return append(csq, 0, csq.length());
+            }
+            public Appendable append(CharSequence csq, int from, int to) {
+                for (int k = from; k < to; k++)
+                    dst.put((byte)csq.charAt(k));
+                return this;
+            }
+        };
+        try {
+            encode(s, charset, out);
+        } catch (IOException e) {
+            // the buffer adapter does not throw IOException
+            throw new InternalError(e);
+        }
+        return dst.position() - start;
+    }
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /*
+     * Encodes s from index i onwards into out.  Runs of unsafe characters
+     * are encoded directly for UTF-8 and with the charset's encoder
+     * otherwise, as String.getBytes would, so that malformed input is
+     * replaced in the same way.
+     */
+    private static void encode(CharSequence s, int i, Charset charset,
+                               Appendable out) throws IOException {
+        boolean utf8 = charset.equals(StandardCharsets.UTF_8);
+        int len = s.length();
+        while (i < len) {
+            int c = s.charAt(i);
             if (dontNeedEncoding.get(c)) {
-                if (c == ' ') {
-                    c = '+';
-                    needToChange = true;
-                }
-                //System.out.println("Storing: " + c);
-                out.append((char)c);
+                out.append(c == ' ' ? '+' : (char)c);
                 i++;
             } else {
-                // convert to external encoding before hex conversion
+                int start = i;
                 do {
-                    charArrayWriter.write(c);
                     /*
                      * If this character represents the start of a Unicode
-                     * surrogate pair, then pass in two characters. It's not
-                     * clear what should be done if a bytes reserved in the
-                     * surrogate pairs range occurs outside of a legal
-                     * surrogate pair. For now, just treat it as if it were
-                     * any other character.
+                     * surrogate pair, then keep the two characters together.
                      */
-                    if (c >= 0xD800 && c <= 0xDBFF) {
-                        /*
-                          System.out.println(Integer.toHexString(c)
-                          + " is high surrogate");
-                        */
-                        if ( (i+1) < s.length()) {
-                            int d = (int) s.charAt(i+1);
-                            /*
-                              System.out.println("\tExamining "
-                              + Integer.toHexString(d));
-                            */
-                            if (d >= 0xDC00 && d <= 0xDFFF) {
-                                /*
-                                  System.out.println("\t"
-                                  + Integer.toHexString(d)
-                                  + " is low surrogate");
-                                */
-                                charArrayWriter.write(d);
-                                i++;
-                            }
-                        }
+                    if (Character.isHighSurrogate((char)c) && (i+1) < len &&
+                        Character.isLowSurrogate(s.charAt(i+1))) {
+                        i++;
                     }
                     i++;
-                } while (i < s.length() && !dontNeedEncoding.get((c = (int) s.charAt(i))));
+                } while (i < len && !dontNeedEncoding.get((c = s.charAt(i))));
 
-                charArrayWriter.flush();
-                String str = new String(charArrayWriter.toCharArray());
-                byte[] ba = str.getBytes(charset);
-                for (int j = 0; j < ba.length; j++) {
-                    out.append('%');
-                    char ch = Character.forDigit((ba[j] >> 4) & 0xF, 16);
-                    // converting to use uppercase letter as part of
-                    // the hex value if ch is a letter.
-                    if (Character.isLetter(ch)) {
-                        ch -= caseDiff;
-                    }
-                    out.append(ch);
-                    ch = Character.forDigit(ba[j] & 0xF, 16);
-                    if (Character.isLetter(ch)) {
-                        ch -= caseDiff;
-                    }
-                    out.append(ch);
+                if (utf8) {
+                    appendUtf8(s, start, i, out);
+                } else {
+                    ByteBuffer bb = charset.encode(CharBuffer.wrap(s, start, i));
+                    while (bb.hasRemaining())
+                        appendEscaped(bb.get(), out);
                 }
-                charArrayWriter.reset();
-                needToChange = true;
             }
         }
+    }
+
+    private static void appendUtf8(CharSequence s, int start, int end,
+                                   Appendable out) throws IOException {
+        for (int i = start; i < end; ) {
+            int cp = Character.codePointAt(s, i);
+            i += Character.charCount(cp);
+            if (cp < 0x80) {
+                appendEscaped(cp, out);
+            } else if (cp < 0x800) {
+                appendEscaped(0xC0 | (cp >> 6), out);
+                appendEscaped(0x80 | (cp & 0x3F), out);
+            } else if (Character.isSurrogate((char)cp) && cp <= 0xFFFF) {
+                // unpaired surrogate, replaced as by String.getBytes
+                appendEscaped('?', out);
+            } else if (cp < 0x10000) {
+                appendEscaped(0xE0 | (cp >> 12), out);
+                appendEscaped(0x80 | ((cp >> 6) & 0x3F), out);
+                appendEscaped(0x80 | (cp & 0x3F), out);
+            } else {
+                appendEscaped(0xF0 | (cp >> 18), out);
+                appendEscaped(0x80 | ((cp >> 12) & 0x3F), out);
+                appendEscaped(0x80 | ((cp >> 6) & 0x3F), out);
+                appendEscaped(0x80 | (cp & 0x3F), out);
+            }
+        }
+    }
 
-        return (needToChange? out.toString() : s);
+    private static void appendEscaped(int b, Appendable out) throws IOException {
+        out.append('%');
+        out.append(HEX_DIGITS[(b >> 4) & 0xF]);
+        out.append(HEX_DIGITS[b & 0xF]);
     }
 }
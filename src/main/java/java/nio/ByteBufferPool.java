@@ -0,0 +1,786 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import sun.misc.VM;
+import sun.util.logging.PlatformLogger;
+
+/**
+ * A pool of byte buffers that are recycled by explicit release rather than
+ * reclaimed by the garbage collector.
+ *
+ * <p> Allocating a direct buffer with {@link ByteBuffer#allocateDirect
+ * allocateDirect} reserves native memory that is only given back when the
+ * garbage collector finds the buffer unreachable and runs its cleaner.  An
+ * application that allocates and drops direct buffers at a high rate may
+ * therefore find the allocation limit reached while most of the memory is
+ * held by garbage, in which case allocation waits for the collector.  A
+ * {@code ByteBufferPool} avoids this by handing out buffers that the
+ * application gives back with {@link #release release} once it no longer
+ * needs them.  The memory of released buffers is kept for reuse; memory
+ * that the pool does not keep is left to the garbage collector, like that
+ * of any other buffer.
+ *
+ * <p> Buffers are pooled in size classes that are powers of two, from 512
+ * bytes up to the pool's maximum buffer size.  A buffer returned by {@link
+ * #allocate allocate(n)} has a capacity of {@code n} rounded up to its size
+ * class, its position set to zero, its limit set to {@code n}, and {@link
+ * ByteOrder#BIG_ENDIAN big-endian} byte order; its content is undefined.
+ * Requests for more than the maximum buffer size are satisfied with buffers
+ * that are not pooled.  Each thread keeps a
+ * small cache of released buffers of the smaller size classes, so that a
+ * thread that allocates and releases buffers in turn does not contend with
+ * other threads.  Buffers beyond the thread caches are shared by all
+ * threads, up to a bound on the total capacity of the idle buffers.
+ *
+ * <p> Each invocation of {@code allocate} returns a new buffer object, and
+ * only that object may be released, once.  A buffer that was not allocated
+ * by the pool, a view, slice, or duplicate of one, and a buffer that has
+ * already been released are rejected.  A buffer should not be used after
+ * it has been released, nor should views, slices, or duplicates of it,
+ * since its memory may be handed out again by a later allocation; doing so
+ * corrupts data but never accesses memory that has been freed, since the
+ * memory of a buffer is not freed while the buffer, or any view, slice, or
+ * duplicate of it, is reachable.  When the system property {@code
+ * java.nio.ByteBufferPool.debug} is set to {@code true}, pools record where
+ * each buffer was allocated and log a warning, with the allocation site,
+ * for every buffer that becomes unreachable without having been released.
+ *
+ * <p> A pool is a {@link BufferPoolMXBean} whose count, total capacity and
+ * memory used are those of the buffers it has allocated and not yet given
+ * up, whether they are in use or idle.  The pools that have been created and
+ * not {@linkplain #close closed} are listed by {@link #getPools getPools}
+ * and are among the buffer pools returned by {@link
+ * java.lang.management.ManagementFactory#getPlatformMXBeans(Class)
+ * ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)}.  The
+ * name of a pool is the {@code name} key of its {@link #getObjectName
+ * ObjectName}, so it must differ from the names of the other pools that
+ * have not been closed and from the names {@code "direct"} and {@code
+ * "mapped"} of the platform's buffer pools.
+ *
+ * <p> Pools are safe for use by multiple concurrent threads.
+ *
+ * @since 9
+ */
+
+public final class ByteBufferPool implements BufferPoolMXBean {
+
+    // Smallest size class is 1 << MIN_SHIFT bytes
+    private static final int MIN_SHIFT = 9;
+
+    // Default largest size class
+    private static final int DEFAULT_MAX_BUFFER_SIZE = 1 << 20;
+
+    // Default bound on the capacity of the idle buffers shared by all threads
+    private static final long DEFAULT_MAX_POOLED_BYTES = 64L << 20;
+
+    // Largest size class kept in thread caches, and the number of buffers
+    // of each size class that a thread cache holds
+    private static final int THREAD_CACHE_MAX_BUFFER_SIZE = 64 * 1024;
+    private static final int THREAD_CACHE_SIZE = 8;
+
+    // Whether allocation sites are recorded and leaks reported
+    private static final boolean DEBUG =
+        Boolean.parseBoolean(AccessController.doPrivileged(
+            new sun.security.action.GetPropertyAction(
+                "java.nio.ByteBufferPool.debug")));
+
+    // The pools that have been created and not closed
+    private static final List<ByteBufferPool> pools =
+        new CopyOnWriteArrayList<>();
+
+    // The thread caches of all pools, indexed by pool slot.  A slot is
+    // given back when its pool is closed and may then be taken by a new
+    // pool, so a cache found in a thread's array is only used if it
+    // belongs to the pool looking it up.
+    private static final IndexedThreadLocal<ThreadCache[]> threadCaches =
+        new IndexedThreadLocal<ThreadCache[]>() {
+            @Override
+            protected ThreadCache[] initialValue() {
+                return new ThreadCache[0];
+            }
+        };
+
+    // The slots of the pools that have not been closed
+    private static final BitSet slots = new BitSet();
+
+    private final String name;
+    private final boolean direct;
+    private final int maxShift;
+    private final int cachedClasses;
+    private final long maxPooledBytes;
+
+    // Idle buffers shared by all threads, per size class.  Idle buffers,
+    // here and in the thread caches, are never handed out themselves: each
+    // allocation returns a new buffer that shares the memory of one.
+    private final ConcurrentLinkedQueue<ByteBuffer>[] shared;
+    private final AtomicLong pooledBytes = new AtomicLong();
+
+    // Buffers allocated and not yet given up
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalCapacity = new AtomicLong();
+
+    // This pool's index in the threads' arrays of caches, and the caches
+    // that threads have created for this pool
+    private final int slot;
+    private final List<ThreadCache> caches = new ArrayList<>();
+
+    private volatile boolean closed;
+    private final ObjectName objectName;
+
+    // Outstanding buffers, by identity hash code, when DEBUG is set
+    private final Map<Integer,List<AllocationSite>> outstanding;
+    private final ReferenceQueue<ByteBuffer> leaked;
+
+    @SuppressWarnings("unchecked")
+    private ByteBufferPool(String name, boolean direct,
+                           int maxBufferSize, long maxPooledBytes)
+    {
+        if (maxBufferSize <= 0)
+            throw new IllegalArgumentException("maxBufferSize <= 0");
+        if (maxPooledBytes < 0)
+            throw new IllegalArgumentException("maxPooledBytes < 0");
+        this.name = Objects.requireNonNull(name);
+        this.direct = direct;
+        this.maxShift = Math.max(MIN_SHIFT, shiftFor(maxBufferSize));
+        this.cachedClasses = Math.min(maxShift,
+            shiftFor(THREAD_CACHE_MAX_BUFFER_SIZE)) - MIN_SHIFT + 1;
+        this.maxPooledBytes = maxPooledBytes;
+        this.objectName = objectNameFor(name);
+        this.shared = new ConcurrentLinkedQueue[maxShift - MIN_SHIFT + 1];
+        for (int i = 0; i < shared.length; i++)
+            shared[i] = new ConcurrentLinkedQueue<>();
+        if (DEBUG) {
+            outstanding = new HashMap<>();
+            leaked = new ReferenceQueue<>();
+        } else {
+            outstanding = null;
+            leaked = null;
+        }
+        synchronized (pools) {
+            if (objectName.equals(objectNameFor("direct")) ||
+                objectName.equals(objectNameFor("mapped")))
+                throw new IllegalArgumentException(
+                    "Name reserved for a platform buffer pool: " + name);
+            for (ByteBufferPool p : pools) {
+                if (p.objectName.equals(objectName))
+                    throw new IllegalArgumentException(
+                        "A pool named " + name + " already exists");
+            }
+            synchronized (slots) {
+                this.slot = slots.nextClearBit(0);
+                slots.set(slot);
+            }
+            pools.add(this);
+        }
+    }
+
+    /**
+     * Creates a pool of direct byte buffers with a maximum pooled buffer
+     * size of one megabyte.
+     *
+     * @param  name
+     *         The name of the pool
+     *
+     * @return  A new pool
+     *
+     * @throws  IllegalArgumentException
+     *          If {@code name} is reserved or is the name of another pool
+     *          that has not been closed
+     */
+    public static ByteBufferPool newDirectPool(String name) {
+        long max = Math.min(DEFAULT_MAX_POOLED_BYTES, VM.maxDirectMemory() / 4);
+        return new ByteBufferPool(name, true, DEFAULT_MAX_BUFFER_SIZE, max);
+    }
+
+    /**
+     * Creates a pool of direct byte buffers.
+     *
+     * @param  name
+     *         The name of the pool
+     *
+     * @param  maxBufferSize
+     *         The capacity of the largest buffers that are pooled, rounded
+     *         up to a power of two
+     *
+     * @param  maxPooledBytes
+     *         The maximum total capacity of the idle buffers shared by all
+     *         threads
+     *
+     * @return  A new pool
+     *
+     * @throws  IllegalArgumentException
+     *          If {@code maxBufferSize} is not positive, {@code
+     *          maxPooledBytes} is negative, or {@code name} is reserved or
+     *          is the name of another pool that has not been closed
+     */
+    public static ByteBufferPool newDirectPool(String name, int maxBufferSize,
+                                               long maxPooledBytes)
+    {
+        return new ByteBufferPool(name, true, maxBufferSize, maxPooledBytes);
+    }
+
+    /**
+     * Creates a pool of heap byte buffers with a maximum pooled buffer size
+     * of one megabyte.
+     *
+     * @param  name
+     *         The name of the pool
+     *
+     * @return  A new pool
+     *
+     * @throws  IllegalArgumentException
+     *          If {@code name} is reserved or is the name of another pool
+     *          that has not been closed
+     */
+    public static ByteBufferPool newHeapPool(String name) {
+        return new ByteBufferPool(name, false, DEFAULT_MAX_BUFFER_SIZE,
+                                  DEFAULT_MAX_POOLED_BYTES);
+    }
+
+    /**
+     * Creates a pool of heap byte buffers.
+     *
+     * @param  name
+     *         The name of the pool
+     *
+     * @param  maxBufferSize
+     *         The capacity of the largest buffers that are pooled, rounded
+     *         up to a power of two
+     *
+     * @param  maxPooledBytes
+     *         The maximum total capacity of the idle buffers shared by all
+     *         threads
+     *
+     * @return  A new pool
+     *
+     * @throws  IllegalArgumentException
+     *          If {@code maxBufferSize} is not positive, {@code
+     *          maxPooledBytes} is negative, or {@code name} is reserved or
+     *          is the name of another pool that has not been closed
+     */
+    public static ByteBufferPool newHeapPool(String name, int maxBufferSize,
+                                             long maxPooledBytes)
+    {
+        return new ByteBufferPool(name, false, maxBufferSize, maxPooledBytes);
+    }
+
+    /**
+     * Returns the pools that have been created and not closed.
+     *
+     * @return  An unmodifiable list of the pools
+     */
+    public static List<ByteBufferPool> getPools() {
+        return Collections.unmodifiableList(new ArrayList<>(pools));
+    }
+
+    /**
+     * Tells whether this pool allocates direct buffers.
+     *
+     * @return  {@code true} if, and only if, this pool allocates direct
+     *          buffers
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * Allocates a byte buffer from this pool.
+     *
+     * @param  capacity
+     *         The number of bytes needed
+     *
+     * @return  A new buffer with a capacity of at least {@code capacity}
+     *          bytes, a position of zero and a limit of {@code capacity}
+     *
+     * @throws  IllegalArgumentException
+     *          If {@code capacity} is negative
+     *
+     * @throws  IllegalStateException
+     *          If this pool has been closed
+     */
+    public ByteBuffer allocate(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Negative capacity: " + capacity);
+        if (closed)
+            throw new IllegalStateException("Pool closed");
+        if (DEBUG)
+            expungeLeaks();
+
+        ByteBuffer mem = null;
+        int shift = shiftFor(capacity);
+        if (shift > maxShift) {
+            mem = newBuffer(capacity);
+        } else {
+            int sc = Math.max(shift, MIN_SHIFT) - MIN_SHIFT;
+            if (sc < cachedClasses)
+                mem = threadCache().pop(sc);
+            if (mem == null) {
+                mem = shared[sc].poll();
+                if (mem != null)
+                    pooledBytes.addAndGet(-mem.capacity());
+            }
+            if (mem == null)
+                mem = newBuffer(1 << (sc + MIN_SHIFT));
+        }
+        Allocation a = new Allocation(this, mem);
+        ByteBuffer bb = direct
+            ? new DirectByteBuffer(((DirectByteBuffer)mem).address(),
+                                   mem.capacity(), a)
+            : new PooledHeapByteBuffer(a);
+        bb.limit(capacity);
+        if (DEBUG)
+            track(bb);
+        return bb;
+    }
+
+    /**
+     * Releases a byte buffer to this pool.  The buffer should not be used
+     * after this method is invoked.
+     *
+     * @param  bb
+     *         The buffer to release
+     *
+     * @throws  IllegalArgumentException
+     *          If the buffer was not returned by this pool's {@link
+     *          #allocate allocate} method, or has already been released
+     */
+    public void release(ByteBuffer bb) {
+        Allocation a = allocationOf(bb);
+        if (a == null || !a.release())
+            throw new IllegalArgumentException(
+                "Buffer not allocated by this pool or already released");
+        if (DEBUG)
+            untrack(bb);
+
+        ByteBuffer mem = a.memory;
+        int cap = mem.capacity();
+        int shift = shiftFor(cap);
+        if (closed || shift > maxShift || cap != (1 << shift) || shift < MIN_SHIFT) {
+            drop(mem);
+            return;
+        }
+        int sc = shift - MIN_SHIFT;
+        if (sc < cachedClasses && threadCache().push(sc, mem))
+            return;
+        offerShared(sc, mem);
+    }
+
+    /**
+     * Closes this pool.  The idle buffers of all threads are given up and
+     * the pool is removed from the list returned by {@link #getPools}.
+     * Buffers released after the pool has been closed are given up.  If
+     * this pool has already been closed then invoking this method has no
+     * effect.
+     */
+    public void close() {
+        synchronized (caches) {
+            if (closed)
+                return;
+            closed = true;
+            for (ThreadCache c : caches)
+                c.drain();
+            caches.clear();
+        }
+        pools.remove(this);
+        drainShared();
+        synchronized (slots) {
+            slots.clear(slot);
+        }
+    }
+
+    // -- BufferPoolMXBean --
+
+    /**
+     * Returns the name of this pool.
+     *
+     * @return  The name of this pool
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns an estimate of the number of buffers allocated by this pool
+     * and not yet given up, whether in use or idle.
+     *
+     * @return  An estimate of the number of buffers
+     */
+    @Override
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns an estimate of the total capacity, in bytes, of the buffers
+     * allocated by this pool and not yet given up.
+     *
+     * @return  An estimate of the total capacity of the buffers in bytes
+     */
+    @Override
+    public long getTotalCapacity() {
+        return totalCapacity.get();
+    }
+
+    /**
+     * Returns an estimate of the memory used by the buffers allocated by
+     * this pool and not yet given up.  This is the same as the {@link
+     * #getTotalCapacity total capacity}.
+     *
+     * @return  An estimate of the memory used by the buffers in bytes
+     */
+    @Override
+    public long getMemoryUsed() {
+        return totalCapacity.get();
+    }
+
+    /**
+     * Returns the {@code ObjectName} of this pool, which takes the form
+     * {@code java.nio:type=BufferPool,name=}<i>pool name</i>.
+     *
+     * @return  The {@code ObjectName} of this pool
+     */
+    @Override
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    // -- Implementation --
+
+    private static ObjectName objectNameFor(String name) {
+        String prefix = "java.nio:type=BufferPool,name=";
+        try {
+            return new ObjectName(prefix + name);
+        } catch (MalformedObjectNameException e) {
+            try {
+                return new ObjectName(prefix + ObjectName.quote(name));
+            } catch (MalformedObjectNameException x) {
+                throw new IllegalArgumentException(x);
+            }
+        }
+    }
+
+    /**
+     * Returns the current thread's cache for this pool, creating it if
+     * needed.
+     */
+    private ThreadCache threadCache() {
+        ThreadCache[] cs = threadCaches.get();
+        ThreadCache c;
+        if (slot < cs.length && (c = cs[slot]) != null && c.pool == this)
+            return c;
+        c = new ThreadCache(this);
+        Thread current = Thread.currentThread();
+        synchronized (caches) {
+            // The caches of threads that have terminated, and the previous
+            // cache of this thread if it dropped its indexed thread locals,
+            // are drained here, as nothing else would return their buffers
+            // to the pool before it is closed
+            for (int i = caches.size() - 1; i >= 0; i--) {
+                ThreadCache tc = caches.get(i);
+                if (tc.isOrphaned() || tc.thread.get() == current) {
+                    tc.drain();
+                    caches.remove(i);
+                }
+            }
+            if (closed)
+                c.drain();
+            else
+                caches.add(c);
+        }
+        if (slot >= cs.length) {
+            cs = Arrays.copyOf(cs, slot + 1);
+            threadCaches.set(cs);
+        }
+        cs[slot] = c;
+        return c;
+    }
+
+    /**
+     * Adds an idle buffer of the given size class to those shared by all
+     * threads, or gives it up if there is no room or the pool is closed.
+     */
+    private void offerShared(int sc, ByteBuffer mem) {
+        int cap = mem.capacity();
+        if (closed) {
+            drop(mem);
+        } else if (pooledBytes.addAndGet(cap) <= maxPooledBytes) {
+            shared[sc].offer(mem);
+            if (closed)
+                drainShared();
+        } else {
+            pooledBytes.addAndGet(-cap);
+            drop(mem);
+        }
+    }
+
+    /**
+     * Gives up the idle buffers shared by all threads.
+     */
+    private void drainShared() {
+        for (ConcurrentLinkedQueue<ByteBuffer> q : shared) {
+            ByteBuffer mem;
+            while ((mem = q.poll()) != null) {
+                pooledBytes.addAndGet(-mem.capacity());
+                drop(mem);
+            }
+        }
+    }
+
+    /**
+     * Returns the smallest shift such that {@code 1 << shift >= n}.
+     */
+    private static int shiftFor(int n) {
+        return (n <= 1) ? 0 : 32 - Integer.numberOfLeadingZeros(n - 1);
+    }
+
+    private ByteBuffer newBuffer(int capacity) {
+        ByteBuffer bb = direct ? ByteBuffer.allocateDirect(capacity)
+                               : ByteBuffer.allocate(capacity);
+        count.incrementAndGet();
+        totalCapacity.addAndGet(capacity);
+        return bb;
+    }
+
+    /**
+     * Gives up a buffer that the pool does not keep.  Its memory is not
+     * freed explicitly: buffers handed out earlier may still refer to it,
+     * so it is left to the garbage collector.
+     */
+    private void drop(ByteBuffer mem) {
+        count.decrementAndGet();
+        totalCapacity.addAndGet(-mem.capacity());
+    }
+
+    /**
+     * Returns the allocation of a buffer returned by this pool's allocate
+     * method, or null if the buffer is not one.  Views, slices and
+     * duplicates of such a buffer refer to the buffer rather than to its
+     * allocation, so they have none.
+     */
+    private Allocation allocationOf(ByteBuffer bb) {
+        Object a;
+        if (bb instanceof PooledHeapByteBuffer)
+            a = ((PooledHeapByteBuffer)bb).allocation;
+        else if (bb instanceof DirectByteBuffer)
+            a = ((DirectByteBuffer)bb).attachment();
+        else
+            a = null;
+        if (a instanceof Allocation && ((Allocation)a).pool == this)
+            return (Allocation)a;
+        return null;
+    }
+
+    /**
+     * One allocation from a pool.  The buffer handed out refers to it, and
+     * it refers to the idle buffer whose memory the handed-out buffer
+     * shares, so that memory stays reachable as long as the handed-out
+     * buffer, or any view, slice or duplicate of it, is.
+     */
+    private static final class Allocation {
+        final ByteBufferPool pool;
+        final ByteBuffer memory;
+        private boolean released;
+
+        Allocation(ByteBufferPool pool, ByteBuffer memory) {
+            this.pool = pool;
+            this.memory = memory;
+        }
+
+        /**
+         * Marks the allocation released, returning false if it already was.
+         */
+        synchronized boolean release() {
+            if (released)
+                return false;
+            released = true;
+            return true;
+        }
+    }
+
+    /**
+     * A heap buffer handed out by a pool.  Its views, slices and duplicates
+     * are plain heap buffers.
+     */
+    private static final class PooledHeapByteBuffer extends HeapByteBuffer {
+        final Allocation allocation;
+
+        PooledHeapByteBuffer(Allocation allocation) {
+            super(allocation.memory.array(), 0, allocation.memory.capacity());
+            this.allocation = allocation;
+        }
+    }
+
+    // -- Debugging --
+
+    /**
+     * Records where an outstanding buffer was allocated, and is enqueued if
+     * the buffer becomes unreachable before it is released.
+     */
+    private static final class AllocationSite extends WeakReference<ByteBuffer> {
+        final int capacity;
+        final Throwable site;
+
+        AllocationSite(ByteBuffer bb, ReferenceQueue<ByteBuffer> q) {
+            super(bb, q);
+            this.capacity = bb.capacity();
+            this.site = new Throwable("Buffer allocated here");
+        }
+    }
+
+    private void track(ByteBuffer bb) {
+        Integer key = System.identityHashCode(bb);
+        AllocationSite as = new AllocationSite(bb, leaked);
+        synchronized (outstanding) {
+            List<AllocationSite> list = outstanding.get(key);
+            if (list == null)
+                outstanding.put(key, list = new ArrayList<>(1));
+            list.add(as);
+        }
+    }
+
+    private void untrack(ByteBuffer bb) {
+        Integer key = System.identityHashCode(bb);
+        synchronized (outstanding) {
+            List<AllocationSite> list = outstanding.get(key);
+            if (list != null) {
+                for (int i = 0; i < list.size(); i++) {
+                    AllocationSite as = list.get(i);
+                    if (as.get() == bb) {
+                        as.clear();
+                        list.remove(i);
+                        if (list.isEmpty())
+                            outstanding.remove(key);
+                        return;
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException(
+            "Buffer not allocated by this pool or already released");
+    }
+
+    /**
+     * Accounts for, and reports, buffers that became unreachable without
+     * having been released.
+     */
+    private void expungeLeaks() {
+        Reference<? extends ByteBuffer> ref;
+        while ((ref = leaked.poll()) != null) {
+            AllocationSite as = (AllocationSite)ref;
+            synchronized (outstanding) {
+                for (List<AllocationSite> list : outstanding.values()) {
+                    if (list.remove(as)) {
+                        if (list.isEmpty())
+                            outstanding.values().remove(list);
+                        break;
+                    }
+                }
+            }
+            count.decrementAndGet();
+            totalCapacity.addAndGet(-as.capacity);
+            PlatformLogger.getLogger(ByteBufferPool.class.getName())
+                .warning("Buffer of " + as.capacity + " bytes from pool \"" +
+                         name + "\" was not released", as.site);
+        }
+    }
+
+    // -- Thread caches --
+
+    /**
+     * A thread's idle buffers of the smaller size classes of one pool, as
+     * one bounded stack per size class.  A cache is only used by its
+     * thread, but is drained by the pool when the pool is closed, when the
+     * thread has terminated, or when the thread has lost track of it; after
+     * that it holds no buffers and takes none.
+     */
+    private static final class ThreadCache {
+        final ByteBufferPool pool;
+        final WeakReference<Thread> thread;
+        private final ByteBuffer[][] stacks;
+        private final int[] sizes;
+        private boolean drained;
+
+        ThreadCache(ByteBufferPool pool) {
+            this.pool = pool;
+            this.thread = new WeakReference<>(Thread.currentThread());
+            stacks = new ByteBuffer[pool.cachedClasses][THREAD_CACHE_SIZE];
+            sizes = new int[pool.cachedClasses];
+        }
+
+        boolean isOrphaned() {
+            Thread t = thread.get();
+            return t == null || !t.isAlive();
+        }
+
+        synchronized ByteBuffer pop(int sc) {
+            int n = sizes[sc];
+            if (n == 0)
+                return null;
+            ByteBuffer bb = stacks[sc][--n];
+            stacks[sc][n] = null;
+            sizes[sc] = n;
+            return bb;
+        }
+
+        synchronized boolean push(int sc, ByteBuffer bb) {
+            int n = sizes[sc];
+            if (drained || n == THREAD_CACHE_SIZE)
+                return false;
+            stacks[sc][n] = bb;
+            sizes[sc] = n + 1;
+            return true;
+        }
+
+        synchronized void drain() {
+            drained = true;
+            for (int sc = 0; sc < sizes.length; sc++) {
+                ByteBuffer bb;
+                while ((bb = pop(sc)) != null)
+                    pool.offerShared(sc, bb);
+            }
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.channels;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteBufferPool;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A sequence of byte buffers that is written or read by gathering and
+ * scattering operations.
+ *
+ * <p> A composite buffer keeps its buffers in an array that it reuses from
+ * one operation to the next, so that a message made of several buffers,
+ * such as a header followed by slices of a body, is written with {@link
+ * GatheringByteChannel#write(ByteBuffer[],int,int) one gathering write}
+ * without copying the buffers into one and without allocating an array for
+ * each call.  Each {@link #write write} or {@link #read read} operation
+ * continues where the previous one stopped, skipping the buffers that have
+ * been exhausted, until no bytes {@linkplain #remaining remain}.
+ *
+ * <p> Channel implementations must copy the content of a heap buffer into
+ * a direct buffer before it can be written.  A composite buffer that is
+ * created with a {@link ByteBufferPool#isDirect direct} {@link
+ * ByteBufferPool} does this copy itself when a heap buffer is {@linkplain
+ * #add added}: the bytes remaining in the heap buffer are appended to a
+ * direct staging buffer taken from the pool, and consecutive heap buffers
+ * share one staging buffer.  The heap buffer's position is advanced to its
+ * limit and the buffer may be reused at once.  Staging buffers are released
+ * to the pool as soon as they have been written, or when the composite
+ * buffer is {@linkplain #clear cleared}.  Direct buffers are never copied.
+ * Composite buffers that stage heap buffers are meant for writing; a
+ * composite buffer into which bytes are read should be created without a
+ * pool.
+ *
+ * <pre>{@code
+ *     CompositeBuffer message = new CompositeBuffer(pool);
+ *     message.add(header).add(body.slice());
+ *     while (message.hasRemaining())
+ *         message.write(channel);
+ * }</pre>
+ *
+ * <p> A composite buffer is not safe for use by multiple concurrent
+ * threads.
+ *
+ * @since 9
+ */
+
+public final class CompositeBuffer {
+
+    // Initial length of the buffer array
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Smallest staging buffer taken from the pool
+    private static final int MIN_STAGING_SIZE = 8 * 1024;
+
+    private final ByteBufferPool pool;
+
+    // The buffers at indices [start, end) have not been exhausted
+    private ByteBuffer[] buffers = new ByteBuffer[INITIAL_CAPACITY];
+    private boolean[] staged = new boolean[INITIAL_CAPACITY];
+    private int start;
+    private int end;
+
+    // Index of the staging buffer that heap buffers are appended to, or -1
+    private int staging = -1;
+
+    /**
+     * Creates an empty composite buffer that does not copy heap buffers.
+     */
+    public CompositeBuffer() {
+        this.pool = null;
+    }
+
+    /**
+     * Creates an empty composite buffer that copies heap buffers into
+     * direct buffers taken from the given pool.
+     *
+     * @param  pool
+     *         A pool of direct buffers
+     *
+     * @throws  IllegalArgumentException
+     *          If the pool does not allocate direct buffers
+     */
+    public CompositeBuffer(ByteBufferPool pool) {
+        if (!pool.isDirect())
+            throw new IllegalArgumentException("Pool does not allocate direct buffers");
+        this.pool = pool;
+    }
+
+    /**
+     * Appends a buffer to this composite buffer.  The bytes between the
+     * buffer's position and limit become part of this composite buffer.
+     * Unless the buffer is a heap buffer that is copied, as described
+     * above, the buffer is not copied and must not be modified until it has
+     * been exhausted or this composite buffer is cleared.
+     *
+     * @param  bb
+     *         The buffer to append
+     *
+     * @return  This composite buffer
+     */
+    public CompositeBuffer add(ByteBuffer bb) {
+        Objects.requireNonNull(bb);
+        if (!bb.hasRemaining())
+            return this;
+        if (pool == null || bb.isDirect()) {
+            append(bb, false);
+            staging = -1;
+        } else {
+            stage(bb);
+        }
+        return this;
+    }
+
+    /**
+     * Appends a sequence of buffers to this composite buffer, as if by
+     * invoking {@link #add(ByteBuffer)} for each buffer in turn.
+     *
+     * @param  bbs
+     *         The buffers to append
+     *
+     * @return  This composite buffer
+     */
+    public CompositeBuffer add(ByteBuffer... bbs) {
+        for (ByteBuffer bb : bbs)
+            add(bb);
+        return this;
+    }
+
+    /**
+     * Returns the number of bytes remaining in this composite buffer.
+     *
+     * @return  The number of bytes remaining
+     */
+    public long remaining() {
+        long n = 0;
+        for (int i = start; i < end; i++)
+            n += buffers[i].remaining();
+        return n;
+    }
+
+    /**
+     * Tells whether any bytes remain in this composite buffer.
+     *
+     * @return  {@code true} if, and only if, at least one byte remains
+     */
+    public boolean hasRemaining() {
+        for (int i = start; i < end; i++) {
+            if (buffers[i].hasRemaining())
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes the bytes remaining in this composite buffer to the given
+     * channel with one gathering write operation.
+     *
+     * @param  ch
+     *         The channel to write to
+     *
+     * @return  The number of bytes written, possibly zero
+     *
+     * @throws  IOException
+     *          If an I/O error occurs; see {@link
+     *          GatheringByteChannel#write(ByteBuffer[],int,int)}
+     */
+    public long write(GatheringByteChannel ch) throws IOException {
+        if (start == end)
+            return 0;
+        long n = ch.write(buffers, start, end - start);
+        advance();
+        return n;
+    }
+
+    /**
+     * Reads bytes from the given channel into the space remaining in this
+     * composite buffer with one scattering read operation.
+     *
+     * @param  ch
+     *         The channel to read from
+     *
+     * @return  The number of bytes read, possibly zero, or {@code -1} if the
+     *          channel has reached end-of-stream
+     *
+     * @throws  IOException
+     *          If an I/O error occurs; see {@link
+     *          ScatteringByteChannel#read(ByteBuffer[],int,int)}
+     */
+    public long read(ScatteringByteChannel ch) throws IOException {
+        if (start == end)
+            return 0;
+        long n = ch.read(buffers, start, end - start);
+        advance();
+        return n;
+    }
+
+    /**
+     * Removes all buffers from this composite buffer and releases its
+     * staging buffers to the pool.  The positions of the buffers are not
+     * changed.
+     */
+    public void clear() {
+        for (int i = start; i < end; i++)
+            discard(i);
+        start = end = 0;
+        staging = -1;
+    }
+
+    // -- Implementation --
+
+    private void append(ByteBuffer bb, boolean isStaged) {
+        if (end == buffers.length) {
+            if (start > 0) {
+                // compact
+                int n = end - start;
+                System.arraycopy(buffers, start, buffers, 0, n);
+                System.arraycopy(staged, start, staged, 0, n);
+                Arrays.fill(buffers, n, end, null);
+                Arrays.fill(staged, n, end, false);
+                if (staging >= 0)
+                    staging -= start;
+                start = 0;
+                end = n;
+            } else {
+                buffers = Arrays.copyOf(buffers, buffers.length << 1);
+                staged = Arrays.copyOf(staged, staged.length << 1);
+            }
+        }
+        buffers[end] = bb;
+        staged[end] = isStaged;
+        end++;
+    }
+
+    /**
+     * Copies the remaining bytes of a heap buffer to the current staging
+     * buffer, taking a new one from the pool when the current one is full.
+     */
+    private void stage(ByteBuffer src) {
+        int n = src.remaining();
+        if (staging >= 0) {
+            ByteBuffer st = buffers[staging];
+            int lim = st.limit();
+            if (st.capacity() - lim >= n) {
+                int pos = st.position();
+                st.limit(lim + n);
+                st.position(lim);
+                st.put(src);
+                st.position(pos);
+                return;
+            }
+        }
+        ByteBuffer st = pool.allocate(Math.max(n, MIN_STAGING_SIZE));
+        st.put(src);
+        st.flip();
+        append(st, true);
+        staging = end - 1;
+    }
+
+    /**
+     * Skips past the buffers that have been exhausted, releasing the
+     * staging buffers among them.
+     */
+    private void advance() {
+        while (start < end && !buffers[start].hasRemaining()) {
+            if (start == staging)
+                staging = -1;
+            discard(start);
+            start++;
+        }
+        if (start == end)
+            start = end = 0;
+    }
+
+    private void discard(int i) {
+        if (staged[i]) {
+            pool.release(buffers[i]);
+            staged[i] = false;
+        }
+        buffers[i] = null;
+    }
+}
@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.channels;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+/**
+ * A resumable transfer of bytes between a file channel and another channel,
+ * with control over how the bytes are moved.
+ *
+ * <p> {@link FileChannel#transferTo transferTo} and {@link
+ * FileChannel#transferFrom transferFrom} move bytes directly between the
+ * file system cache and the other channel when the operating system and
+ * the channels allow it, and otherwise fall back silently to copying through
+ * a temporary buffer.  A {@code FileTransfer} makes that choice visible.
+ * When it is created, the transfer determines whether the channels are of
+ * the platform implementation, and so eligible for a direct transfer.  If
+ * they are, every step of the transfer is delegated to {@code transferTo}
+ * or {@code transferFrom} ({@link Method#CHANNEL_TRANSFER}).  Eligibility is
+ * only a hint: it does not guarantee that bytes are moved without a copy,
+ * as those methods may still copy through a buffer internally when the
+ * operating system cannot move the bytes directly.  Otherwise the
+ * bytes are copied through a single direct buffer that is reused for the
+ * whole transfer ({@link Method#BUFFER_COPY}), or, if buffer copies have been
+ * {@linkplain #allowBufferCopy disallowed}, the transfer fails with {@link
+ * UnsupportedOperationException}.  The method chosen is reported by
+ * {@link #method()}.
+ *
+ * <p> Each invocation of {@link #transfer()} moves bytes in steps of at most
+ * the {@linkplain #chunkSize chunk size} until the transfer is complete, or
+ * until the other channel, if it is in non-blocking mode, can accept or
+ * supply no more bytes.  In the latter case {@code transfer()} returns
+ * early and may be invoked again, typically once a {@link Selector} reports
+ * the channel ready, to resume the transfer where it stopped.  A listener
+ * may be registered to be told of the progress made by each step.
+ *
+ * <pre>{@code
+ *     FileTransfer t = FileTransfer.to(file, 0, file.size(), socket)
+ *                                  .chunkSize(1 << 20);
+ *     t.transfer();
+ *     if (!t.isComplete())
+ *         key.interestOps(SelectionKey.OP_WRITE);  // resume when writable
+ * }</pre>
+ *
+ * <p> A {@code FileTransfer} is not safe for use by multiple concurrent
+ * threads.
+ *
+ * @since 9
+ */
+
+public final class FileTransfer {
+
+    /**
+     * The ways in which a transfer moves bytes.
+     */
+    public static enum Method {
+        /**
+         * Bytes are moved by {@link FileChannel#transferTo transferTo} or
+         * {@link FileChannel#transferFrom transferFrom} between channels of
+         * the platform implementation.  These methods may use the operating
+         * system's zero-copy facilities (such as {@code sendfile}) or a
+         * memory-mapped file, but may also fall back to copying through a
+         * buffer internally.
+         */
+        CHANNEL_TRANSFER,
+        /**
+         * Bytes are read into and written from a direct buffer that is
+         * allocated once per transfer.
+         */
+        BUFFER_COPY;
+    }
+
+    /**
+     * The default chunk size.
+     */
+    private static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * The largest buffer used for buffer copies.
+     */
+    private static final int MAX_COPY_BUFFER_SIZE = 256 * 1024;
+
+    private final FileChannel file;
+    private final WritableByteChannel target;   // null if transferring in
+    private final ReadableByteChannel source;   // null if transferring out
+    private final long position;
+    private long count;
+    private long transferred;
+
+    private Method method;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private LongConsumer listener;
+
+    // buffer for BUFFER_COPY; holds bytes read but not yet written
+    private ByteBuffer buffer;
+
+    private FileTransfer(FileChannel file, long position, long count,
+                         WritableByteChannel target, ReadableByteChannel source)
+    {
+        if ((position < 0) || (count < 0))
+            throw new IllegalArgumentException();
+        this.file = Objects.requireNonNull(file);
+        this.position = position;
+        this.count = count;
+        this.target = target;
+        this.source = source;
+        this.method = isChannelTransferEligible()
+            ? Method.CHANNEL_TRANSFER : Method.BUFFER_COPY;
+    }
+
+    /**
+     * Creates a transfer of bytes from the given file channel, starting at
+     * the given file position, to the given target channel.  This channel's
+     * position is not modified.
+     *
+     * @param  file
+     *         The file channel to read from
+     *
+     * @param  position
+     *         The position within the file at which the transfer is to
+     *         begin; must be non-negative
+     *
+     * @param  count
+     *         The maximum number of bytes to be transferred; must be
+     *         non-negative
+     *
+     * @param  target
+     *         The target channel
+     *
+     * @return  A new transfer, of which no bytes have been transferred
+     *
+     * @throws IllegalArgumentException
+     *         If the preconditions on the parameters do not hold
+     */
+    public static FileTransfer to(FileChannel file, long position, long count,
+                                  WritableByteChannel target)
+    {
+        return new FileTransfer(file, position, count,
+                                Objects.requireNonNull(target), null);
+    }
+
+    /**
+     * Creates a transfer of bytes from the given source channel into the
+     * given file channel, starting at the given file position.  The file
+     * channel's position is not modified.
+     *
+     * @param  src
+     *         The source channel
+     *
+     * @param  file
+     *         The file channel to write to
+     *
+     * @param  position
+     *         The position within the file at which the transfer is to
+     *         begin; must be non-negative
+     *
+     * @param  count
+     *         The maximum number of bytes to be transferred; must be
+     *         non-negative
+     *
+     * @return  A new transfer, of which no bytes have been transferred
+     *
+     * @throws IllegalArgumentException
+     *         If the preconditions on the parameters do not hold
+     */
+    public static FileTransfer from(ReadableByteChannel src, FileChannel file,
+                                    long position, long count)
+    {
+        return new FileTransfer(file, position, count,
+                                null, Objects.requireNonNull(src));
+    }
+
+    /**
+     * Tells whether both channels are of the platform implementation, which
+     * may transfer bytes between them without a user-space copy.
+     */
+    private boolean isChannelTransferEligible() {
+        if (!(file instanceof sun.nio.ch.FileChannelImpl))
+            return false;
+        if (target != null) {
+            return (target instanceof sun.nio.ch.FileChannelImpl) ||
+                   (target instanceof sun.nio.ch.SelChImpl);
+        } else {
+            return (source instanceof sun.nio.ch.FileChannelImpl);
+        }
+    }
+
+    /**
+     * Sets the maximum number of bytes moved by each step of the transfer.
+     * Progress is reported, and the operation may be interrupted, between
+     * steps.  For buffer copies the chunk size also bounds the size of the
+     * buffer.
+     *
+     * @param  size
+     *         The chunk size; must be positive
+     *
+     * @return  This transfer
+     *
+     * @throws IllegalArgumentException
+     *         If {@code size} is not positive
+     * @throws IllegalStateException
+     *         If a buffer copy has already started
+     */
+    public FileTransfer chunkSize(int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException("Chunk size <= 0");
+        if (buffer != null)
+            throw new IllegalStateException("Transfer in progress");
+        chunkSize = size;
+        return this;
+    }
+
+    /**
+     * Sets whether bytes may be copied through a buffer when the channels
+     * are not eligible for a direct transfer.  Buffer copies are allowed by
+     * default.
+     *
+     * @param  allow
+     *         {@code false} to make {@link #transfer()} fail rather than
+     *         copy through a buffer
+     *
+     * @return  This transfer
+     */
+    public FileTransfer allowBufferCopy(boolean allow) {
+        if (!allow && method == Method.BUFFER_COPY)
+            method = null;
+        else if (allow && method == null)
+            method = Method.BUFFER_COPY;
+        return this;
+    }
+
+    /**
+     * Registers a listener that is invoked after each step of the transfer
+     * with the total number of bytes transferred so far.
+     *
+     * @param  listener
+     *         The listener, or {@code null} to remove the listener
+     *
+     * @return  This transfer
+     */
+    public FileTransfer progressListener(LongConsumer listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Returns how this transfer moves bytes.
+     *
+     * @return  The transfer method, or {@code null} if the channels are not
+     *          eligible for a direct transfer and buffer copies have been
+     *          disallowed
+     */
+    public Method method() {
+        return method;
+    }
+
+    /**
+     * Returns the number of bytes transferred so far.
+     *
+     * @return  The number of bytes transferred
+     */
+    public long transferred() {
+        return transferred;
+    }
+
+    /**
+     * Returns the number of bytes that remain to be transferred.  This may
+     * be fewer than requested when the transfer was created if the end of
+     * the file, or of the source channel, has been reached.
+     *
+     * @return  The number of bytes remaining
+     */
+    public long remaining() {
+        return count - transferred;
+    }
+
+    /**
+     * Tells whether this transfer is complete.
+     *
+     * @return  {@code true} if no bytes remain to be transferred
+     */
+    public boolean isComplete() {
+        return transferred >= count;
+    }
+
+    /**
+     * Continues this transfer.  Bytes are transferred until the transfer is
+     * complete or no more bytes can be transferred without blocking.
+     *
+     * @return  The number of bytes, possibly zero, transferred by this
+     *          invocation
+     *
+     * @throws UnsupportedOperationException
+     *         If the channels are not eligible for a direct transfer and
+     *         buffer copies have been disallowed
+     *
+     * @throws  ClosedChannelException
+     *          If either channel is closed
+     *
+     * @throws  IOException
+     *          If some other I/O error occurs; see {@link
+     *          FileChannel#transferTo transferTo} and {@link
+     *          FileChannel#transferFrom transferFrom}
+     */
+    public long transfer() throws IOException {
+        if (method == null)
+            throw new UnsupportedOperationException("Direct transfer not possible");
+        long start = transferred;
+        while (transferred < count) {
+            long n = (method == Method.CHANNEL_TRANSFER)
+                     ? channelTransfer() : bufferCopy();
+            if (n <= 0)
+                break;
+            transferred += n;
+            if (listener != null)
+                listener.accept(transferred);
+        }
+        return transferred - start;
+    }
+
+    /**
+     * Performs one step of a CHANNEL_TRANSFER, returning the number of bytes
+     * transferred or 0 if none could be.
+     */
+    private long channelTransfer() throws IOException {
+        long pos = position + transferred;
+        long len = Math.min(chunkSize, count - transferred);
+        long n = (target != null)
+                 ? file.transferTo(pos, len, target)
+                 : file.transferFrom(source, pos, len);
+        if (n == 0) {
+            if (target != null) {
+                // at end of file, nothing left to transfer
+                if (pos >= file.size())
+                    count = transferred;
+            } else if (source instanceof FileChannel) {
+                FileChannel fc = (FileChannel) source;
+                if (fc.position() >= fc.size())
+                    count = transferred;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Performs one step of a BUFFER_COPY, returning the number of bytes
+     * written to the destination or 0 if none could be.
+     */
+    private long bufferCopy() throws IOException {
+        ByteBuffer bb = buffer;
+        if (bb == null) {
+            int size = (int) Math.min(Math.min(chunkSize, MAX_COPY_BUFFER_SIZE),
+                                      count - transferred);
+            bb = buffer = ByteBuffer.allocateDirect(size);
+            bb.flip();
+        }
+
+        // refill if all buffered bytes have been written
+        if (!bb.hasRemaining()) {
+            bb.clear();
+            long left = count - transferred;
+            if (left < bb.capacity())
+                bb.limit((int) left);
+            int n;
+            if (target != null) {
+                n = file.read(bb, position + transferred);
+            } else {
+                n = source.read(bb);
+            }
+            bb.flip();
+            if (n < 0) {
+                // end of file or of source, nothing left to transfer
+                count = transferred;
+                return 0;
+            }
+            if (n == 0)
+                return 0;
+        }
+
+        if (target != null) {
+            return target.write(bb);
+        } else {
+            long pos = position + transferred;
+            int n = 0;
+            while (bb.hasRemaining())
+                n += file.write(bb, pos + n);
+            return n;
+        }
+    }
+}
@@ -0,0 +1,639 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.channels;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of records, stored in memory-mapped segment files,
+ * that commits the records of many writers with one force.
+ *
+ * <p> A log is kept in a directory as a sequence of segment files of equal,
+ * fixed size.  Each segment file is allocated and {@linkplain
+ * FileChannel#map mapped} in full when it is created, and records are
+ * appended to it by copying them into the mapped buffer.  When a record
+ * does not fit in the space left in the current segment, the log rolls over
+ * to a new segment.
+ *
+ * <p> Records are identified by their <i>position</i>, a logical offset
+ * that increases with each record appended.  {@link #append append} copies
+ * a record into the log and returns its position, but does not make the
+ * record durable.  {@link #commit(long) commit} forces the segments to
+ * storage up to a given position, and a single force serves every thread
+ * that commits while it is in progress, and every record appended before it
+ * started.  Thus many writers that each append a record and then commit it
+ * share the cost of the force ("group commit").
+ *
+ * <p> Committed records are read by a {@link Reader}, which returns each
+ * record as a read-only buffer over the mapped segment, without copying,
+ * and which can wait for records to be committed by other threads.
+ *
+ * <p> Each record is stored with its length and a CRC-32 checksum of its
+ * content.  When a log is opened, the records of all of its segments are
+ * validated and the log is truncated after the last valid record, deleting
+ * the segment files that follow it, so that records whose writing was
+ * interrupted by a crash are discarded.  As records are committed in
+ * order, all records that were committed before the crash are retained.
+ *
+ * <p> Segments are not unmapped explicitly: the mapping of a segment is
+ * released when the log has been closed and neither it nor any buffer
+ * returned by one of its readers is reachable any longer.  Buffers
+ * returned by a reader thus remain usable after the log has been closed.
+ *
+ * <p> Logs are safe for use by multiple concurrent threads.  While a log is
+ * open it holds an exclusive {@link FileLock} on a file named {@code
+ * lock} in its directory, so that the log cannot be opened again at the
+ * same time, by this or any other process, on platforms where file locks
+ * are enforced between processes.
+ *
+ * @since 9
+ */
+
+public final class LogChannel implements Channel {
+
+    /**
+     * The default segment size.
+     */
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    // Smallest segment size
+    private static final int MIN_SEGMENT_SIZE = 4096;
+
+    // Record header: int (length + 1), int CRC-32 of content; a header word
+    // of 0 marks space not yet written and END_OF_SEGMENT marks the end of
+    // the records of a segment that was rolled over
+    private static final int HEADER_SIZE = 8;
+    private static final int END_OF_SEGMENT = -1;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String LOCK_FILE = "lock";
+
+    /**
+     * A mapped segment file.
+     */
+    private static final class Segment {
+        final long base;
+        final MappedByteBuffer buffer;
+        final ByteBuffer writeView;     // used by appenders, under the log lock
+
+        Segment(long base, MappedByteBuffer buffer) {
+            this.base = base;
+            this.buffer = buffer;
+            this.writeView = buffer.duplicate();
+        }
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+
+    // Held, with its channel, while the log is open
+    private final FileLock lock;
+
+    // Segments in order of position; guarded by this
+    private final List<Segment> segments;
+    private final CRC32 crc = new CRC32();
+
+    // End of the records appended; written under this
+    private volatile long written;
+
+    // End of the records committed; written under commitLock
+    private volatile long committed;
+
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final Condition commitDone = commitLock.newCondition();
+    private boolean forcing;
+
+    private volatile boolean open = true;
+
+    private LogChannel(Path directory, int segmentSize, FileLock lock,
+                       List<Segment> segments, long end)
+    {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.lock = lock;
+        this.segments = segments;
+        this.written = end;
+        this.committed = end;
+    }
+
+    /**
+     * Opens or creates a log with the default segment size of 64 megabytes.
+     *
+     * @param  directory
+     *         The directory in which the segment files are kept
+     *
+     * @return  The log
+     *
+     * @throws  IOException
+     *          If an I/O error occurs, if the log is already open, or if the
+     *          segment files in the directory are not those of a log with
+     *          the default segment size
+     */
+    public static LogChannel open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens or creates a log.  If the directory does not exist then it is
+     * created.  If it contains segment files then the log they hold is
+     * recovered, and appending continues after its last valid record.
+     *
+     * @param  directory
+     *         The directory in which the segment files are kept
+     *
+     * @param  segmentSize
+     *         The size of each segment file; must be at least 4096
+     *
+     * @return  The log
+     *
+     * @throws  IllegalArgumentException
+     *          If the segment size is less than 4096
+     *
+     * @throws  IOException
+     *          If an I/O error occurs, if the log is already open, or if the
+     *          segment files in the directory are not those of a log with
+     *          the given segment size
+     */
+    public static LogChannel open(Path directory, int segmentSize)
+        throws IOException
+    {
+        if (segmentSize < MIN_SEGMENT_SIZE)
+            throw new IllegalArgumentException("Segment size < " + MIN_SEGMENT_SIZE);
+        Files.createDirectories(directory);
+
+        FileChannel lc = FileChannel.open(directory.resolve(LOCK_FILE),
+                                          StandardOpenOption.CREATE,
+                                          StandardOpenOption.WRITE);
+        try {
+            FileLock lock;
+            try {
+                lock = lc.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null)
+                throw new IOException("Log " + directory + " is already open");
+            return open(directory, segmentSize, lock);
+        } catch (IOException | RuntimeException | Error e) {
+            lc.close();
+            throw e;
+        }
+    }
+
+    private static LogChannel open(Path directory, int segmentSize,
+                                   FileLock lock)
+        throws IOException
+    {
+        List<Long> bases = new ArrayList<>();
+        try (DirectoryStream<Path> stream =
+                 Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                try {
+                    bases.add(Long.parseLong(name.substring(0,
+                        name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException ignore) { }
+            }
+        }
+        Collections.sort(bases);
+
+        // Validate every segment, as a crash may leave torn records in any
+        // segment written since the last commit, which is not recorded.
+        // The records end at the first invalid one; as records are
+        // committed in order, none of the records after it was committed,
+        // so later segment files are deleted.
+        List<Segment> segments = new ArrayList<>();
+        long end = -1L;
+        long expected = bases.isEmpty() ? 0L : bases.get(0);
+        for (long base : bases) {
+            Path file = segmentFile(directory, base);
+            if (end >= 0L) {
+                Files.delete(file);
+                continue;
+            }
+            if (base != expected)
+                throw new IOException("Missing or misplaced log segment before " +
+                                      file);
+            if (Files.size(file) != segmentSize)
+                throw new IOException("Log segment " + file + " is not " +
+                                      segmentSize + " bytes");
+            Segment seg = mapSegment(directory, base, segmentSize);
+            segments.add(seg);
+            int off = recover(seg.buffer, segmentSize);
+            if (off < segmentSize)
+                end = base + off;
+            expected = base + segmentSize;
+        }
+        if (segments.isEmpty()) {
+            segments.add(mapSegment(directory, 0L, segmentSize));
+            end = 0L;
+        } else if (end < 0L) {
+            // the last segment is full; the next append rolls over
+            end = expected;
+        }
+        return new LogChannel(directory, segmentSize, lock, segments, end);
+    }
+
+    private static Path segmentFile(Path directory, long base) {
+        return directory.resolve(String.format("%020d", base) + SEGMENT_SUFFIX);
+    }
+
+    private static Segment mapSegment(Path directory, long base, int size)
+        throws IOException
+    {
+        Path file = segmentFile(directory, base);
+        try (FileChannel fc = FileChannel.open(file, StandardOpenOption.CREATE,
+                                               StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE)) {
+            return new Segment(base, fc.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    /**
+     * Returns the offset after the last valid record of a segment, clearing
+     * the header of the first invalid record if there is one.  Returns the
+     * segment size if the records of the segment continue in the next one.
+     */
+    private static int recover(MappedByteBuffer mb, int size) {
+        CRC32 crc = new CRC32();
+        ByteBuffer view = mb.duplicate();
+        int off = 0;
+        while (off + 4 <= size) {
+            int h = mb.getInt(off);
+            if (h == 0)
+                return off;
+            if (h == END_OF_SEGMENT)
+                return size;
+            int len = h - 1;
+            if (len < 0 || len > size - HEADER_SIZE - off) {
+                mb.putInt(off, 0);
+                return off;
+            }
+            view.limit(off + HEADER_SIZE + len);
+            view.position(off + HEADER_SIZE);
+            crc.reset();
+            crc.update(view);
+            view.limit(size);
+            if ((int)crc.getValue() != mb.getInt(off + 4)) {
+                mb.putInt(off, 0);
+                return off;
+            }
+            off += HEADER_SIZE + len;
+        }
+        // too little space left for a header; the records continue in the
+        // next segment
+        return size;
+    }
+
+    /**
+     * Appends a record to this log.  The bytes between the buffer's position
+     * and limit are copied into the log and the buffer's position is
+     * advanced to its limit.  The record is not durable until it has been
+     * {@linkplain #commit(long) committed}.
+     *
+     * @param  src
+     *         The content of the record
+     *
+     * @return  The position of the record
+     *
+     * @throws  IllegalArgumentException
+     *          If the record is larger than the segment size less eight
+     *
+     * @throws  ClosedChannelException
+     *          If this log is closed
+     *
+     * @throws  IOException
+     *          If an I/O error occurs while creating a new segment
+     */
+    public long append(ByteBuffer src) throws IOException {
+        int len = src.remaining();
+        if (len > segmentSize - HEADER_SIZE)
+            throw new IllegalArgumentException("Record too large: " + len);
+        synchronized (this) {
+            ensureOpen();
+            Segment seg = segments.get(segments.size() - 1);
+            long pos = written;
+            int off = (int)(pos - seg.base);
+            if (off + HEADER_SIZE + len > segmentSize) {
+                if (off + 4 <= segmentSize)
+                    seg.buffer.putInt(off, END_OF_SEGMENT);
+                seg = mapSegment(directory, seg.base + segmentSize, segmentSize);
+                segments.add(seg);
+                pos = seg.base;
+                off = 0;
+            }
+
+            ByteBuffer view = seg.writeView;
+            view.limit(off + HEADER_SIZE + len);
+            view.position(off + HEADER_SIZE);
+            view.put(src);
+            view.position(off + HEADER_SIZE);
+            crc.reset();
+            crc.update(view);
+            view.limit(segmentSize);
+
+            // header word last, so that the record is never seen half written
+            seg.buffer.putInt(off + 4, (int)crc.getValue());
+            seg.buffer.putInt(off, len + 1);
+            written = pos + HEADER_SIZE + len;
+            return pos;
+        }
+    }
+
+    /**
+     * Returns the position after the last record appended.
+     *
+     * @return  The position at which the next record will be appended,
+     *          unless it causes a rollover
+     */
+    public long position() {
+        return written;
+    }
+
+    /**
+     * Returns the position after the last record committed.
+     *
+     * @return  The position up to which records are durable
+     */
+    public long committedPosition() {
+        return committed;
+    }
+
+    /**
+     * Commits all records appended to this log so far, by this or any other
+     * thread.
+     *
+     * @throws  ClosedChannelException
+     *          If this log is closed
+     *
+     * @throws  IOException
+     *          If an I/O error occurs
+     */
+    public void commit() throws IOException {
+        commit(written);
+    }
+
+    /**
+     * Commits the records of this log that start before the given position.
+     * If another thread is already forcing records to storage then this
+     * method waits for it to finish, and returns if that force covered the
+     * given position.  Otherwise this thread forces every record appended so
+     * far, on behalf of all threads waiting to commit.
+     *
+     * @param  position
+     *         The position up to which records are to be committed; a
+     *         position returned by {@link #append append} commits that record
+     *
+     * @throws  ClosedChannelException
+     *          If this log is closed
+     *
+     * @throws  IOException
+     *          If an I/O error occurs
+     */
+    public void commit(long position) throws IOException {
+        commitLock.lock();
+        try {
+            // committing a record's position commits the record
+            while (committed <= position && committed < written) {
+                ensureOpen();
+                if (forcing) {
+                    commitDone.awaitUninterruptibly();
+                    continue;
+                }
+                forcing = true;
+                long from = committed;
+                long to = written;
+                commitLock.unlock();
+                try {
+                    for (Segment seg : segmentsBetween(from, to))
+                        seg.buffer.force();
+                } finally {
+                    commitLock.lock();
+                    forcing = false;
+                    commitDone.signalAll();
+                }
+                committed = to;
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    private synchronized List<Segment> segmentsBetween(long from, long to)
+        throws IOException
+    {
+        ensureOpen();
+        int first = indexOf(from);
+        int last = indexOf(Math.max(from, to - 1));
+        return new ArrayList<>(segments.subList(first, last + 1));
+    }
+
+    // Returns the index of the segment containing the given position
+    private int indexOf(long position) {
+        long index = (position - segments.get(0).base) / segmentSize;
+        return (int)Math.min(Math.max(index, 0), segments.size() - 1);
+    }
+
+    private synchronized Segment segmentFor(long position) throws IOException {
+        ensureOpen();
+        return segments.get(indexOf(position));
+    }
+
+    /**
+     * Returns a reader of the committed records of this log, starting with
+     * the record at the given position.
+     *
+     * @param  position
+     *         The position of a record, or the position at which the next
+     *         record is expected to be appended
+     *
+     * @return  A new reader
+     *
+     * @throws  IllegalArgumentException
+     *          If the position precedes the first segment or follows the
+     *          last record appended
+     *
+     * @throws  ClosedChannelException
+     *          If this log is closed
+     */
+    public synchronized Reader newReader(long position) throws IOException {
+        ensureOpen();
+        if (position < segments.get(0).base || position > written)
+            throw new IllegalArgumentException("Position out of range: " + position);
+        return new Reader(position);
+    }
+
+    /**
+     * Reads the committed records of a log in order.  A reader is not safe
+     * for use by multiple concurrent threads.
+     *
+     * @since 9
+     */
+    public final class Reader {
+        private long position;
+
+        private Reader(long position) {
+            this.position = position;
+        }
+
+        /**
+         * Returns the position of the next record to be read.
+         *
+         * @return  The reader's position
+         */
+        public long position() {
+            return position;
+        }
+
+        /**
+         * Returns the next committed record, if there is one.
+         *
+         * @return  A read-only buffer over the content of the record, or
+         *          {@code null} if all committed records have been read
+         *
+         * @throws  ClosedChannelException
+         *          If the log is closed
+         *
+         * @throws  IOException
+         *          If the record is corrupt
+         */
+        public ByteBuffer next() throws IOException {
+            long end = committed;
+            while (position < end) {
+                Segment seg = segmentFor(position);
+                int off = (int)(position - seg.base);
+                int h = (off + HEADER_SIZE <= segmentSize)
+                        ? seg.buffer.getInt(off) : END_OF_SEGMENT;
+                if (h == END_OF_SEGMENT || h == 0) {
+                    position = seg.base + segmentSize;
+                    continue;
+                }
+                int len = h - 1;
+                if (len < 0 || len > segmentSize - HEADER_SIZE - off)
+                    throw new IOException("Corrupt log record at position " +
+                                          position);
+                ByteBuffer record = seg.buffer.duplicate();
+                record.limit(off + HEADER_SIZE + len);
+                record.position(off + HEADER_SIZE);
+                position += HEADER_SIZE + len;
+                return record.slice().asReadOnlyBuffer();
+            }
+            return null;
+        }
+
+        /**
+         * Returns the next committed record, waiting if necessary for one to
+         * be committed.
+         *
+         * @param  timeout
+         *         How long to wait, in units of {@code unit}
+         *
+         * @param  unit
+         *         The unit of the timeout
+         *
+         * @return  A read-only buffer over the content of the record, or
+         *          {@code null} if no record was committed before the
+         *          timeout elapsed
+         *
+         * @throws  InterruptedException
+         *          If the current thread is interrupted while waiting
+         *
+         * @throws  ClosedChannelException
+         *          If the log is closed
+         */
+        public ByteBuffer next(long timeout, TimeUnit unit)
+            throws IOException, InterruptedException
+        {
+            long nanos = unit.toNanos(timeout);
+            ByteBuffer record;
+            while ((record = next()) == null) {
+                commitLock.lock();
+                try {
+                    while (committed <= position && open) {
+                        if (nanos <= 0L)
+                            return null;
+                        nanos = commitDone.awaitNanos(nanos);
+                    }
+                } finally {
+                    commitLock.unlock();
+                }
+            }
+            return record;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!open)
+            throw new ClosedChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Closes this log.  Records that have been appended but not committed
+     * are forced to storage and the log's file lock is released.  Threads
+     * waiting in a reader are woken.
+     *
+     * @throws  IOException
+     *          If an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (!open)
+                return;
+            try {
+                commit();
+            } finally {
+                commitLock.lock();
+                try {
+                    open = false;
+                    commitDone.signalAll();
+                } finally {
+                    commitLock.unlock();
+                }
+                segments.clear();
+                lock.channel().close();
+            }
+        }
+    }
+}
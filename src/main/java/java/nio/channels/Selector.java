@@ -28,7 +28,10 @@ package java.nio.channels;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.channels.spi.SelectorProvider;
+import java.util.Iterator;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 
 
 /**
@@ -349,6 +352,156 @@ public abstract class Selector implements Closeable {
      */
     public abstract int select() throws IOException;
 
+    /**
+     * Selects and performs an action on the keys whose corresponding channels
+     * are ready for I/O operations.
+     *
+     * <p> This method performs a blocking <a href="#selop">selection
+     * operation</a>, as if by invoking {@link #select(long) select(timeout)},
+     * and then, rather than leaving the keys in the selected-key set, invokes
+     * the given action on each key whose channel is ready.  The action is
+     * invoked with the key's ready-operation set already updated, and a key
+     * is removed from the selected-key set before the action is invoked on
+     * it, so that the selected-key set need not be iterated or cleared by the
+     * caller.  Keys that were in the selected-key set before this method was
+     * invoked are also handed to the action.  If the action throws an
+     * exception then the exception is propagated to the caller of this
+     * method and keys that the action has not yet been invoked on remain in
+     * the selected-key set.
+     *
+     * <p> The action is invoked while this selector and its selected-key set
+     * are locked, and must not itself invoke a selection operation on this
+     * selector.  It may cancel keys and register channels with this selector;
+     * the effect of doing so is seen by the next selection operation.  </p>
+     *
+     * @implSpec The default implementation invokes {@link #select(long)} and
+     * then iterates over the selected-key set, removing each key and
+     * invoking the action on it.  Selector implementations are encouraged to
+     * override this method to hand ready keys to the action as they are
+     * found, without adding them to the selected-key set.
+     *
+     * @param  action   The action to perform
+     *
+     * @param  timeout  If positive, block for up to {@code timeout}
+     *                  milliseconds, more or less, while waiting for a
+     *                  channel to become ready; if zero, block indefinitely;
+     *                  must not be negative
+     *
+     * @return  The number of keys on which the action was invoked
+     *
+     * @throws  IOException
+     *          If an I/O error occurs
+     *
+     * @throws  ClosedSelectorException
+     *          If this selector is closed or is closed by the action
+     *
+     * @throws  IllegalArgumentException
+     *          If the value of the timeout argument is negative
+     *
+     * @since 9
+     */
+    public int select(Consumer<SelectionKey> action, long timeout)
+        throws IOException
+    {
+        if (timeout < 0)
+            throw new IllegalArgumentException("Negative timeout");
+        return doSelect(Objects.requireNonNull(action), timeout);
+    }
+
+    /**
+     * Selects and performs an action on the keys whose corresponding channels
+     * are ready for I/O operations.
+     *
+     * <p> This method performs a blocking <a href="#selop">selection
+     * operation</a>, as if by invoking {@link #select()}, and then invokes the
+     * given action on each ready key as specified by {@link
+     * #select(Consumer,long)}.  </p>
+     *
+     * @implSpec The default implementation invokes {@link
+     * #select(Consumer,long) select(action, 0)}.
+     *
+     * @param  action   The action to perform
+     *
+     * @return  The number of keys on which the action was invoked
+     *
+     * @throws  IOException
+     *          If an I/O error occurs
+     *
+     * @throws  ClosedSelectorException
+     *          If this selector is closed or is closed by the action
+     *
+     * @since 9
+     */
+    public int select(Consumer<SelectionKey> action) throws IOException {
+        return select(action, 0);
+    }
+
+    /**
+     * Selects and performs an action on the keys whose corresponding channels
+     * are ready for I/O operations.
+     *
+     * <p> This method performs a non-blocking <a href="#selop">selection
+     * operation</a>, as if by invoking {@link #selectNow()}, and then invokes
+     * the given action on each ready key as specified by {@link
+     * #select(Consumer,long)}.  </p>
+     *
+     * @implSpec The default implementation invokes {@link #selectNow()} and
+     * then iterates over the selected-key set, removing each key and
+     * invoking the action on it.
+     *
+     * @param  action   The action to perform
+     *
+     * @return  The number of keys on which the action was invoked
+     *
+     * @throws  IOException
+     *          If an I/O error occurs
+     *
+     * @throws  ClosedSelectorException
+     *          If this selector is closed or is closed by the action
+     *
+     * @since 9
+     */
+    public int selectNow(Consumer<SelectionKey> action) throws IOException {
+        return doSelect(Objects.requireNonNull(action), -1);
+    }
+
+    /**
+     * Default implementation of select(Consumer) and selectNow(Consumer).
+     * A negative timeout means a non-blocking selection.
+     */
+    private int doSelect(Consumer<SelectionKey> action, long timeout)
+        throws IOException
+    {
+        // the locks are taken in the order in which a selection operation
+        // takes them: the selector, its key set, its selected-key set
+        synchronized (this) {
+            Set<SelectionKey> keys = keys();
+            Set<SelectionKey> selectedKeys = selectedKeys();
+            synchronized (keys) {
+                synchronized (selectedKeys) {
+                    if (timeout < 0) {
+                        selectNow();
+                    } else {
+                        select(timeout);
+                    }
+                    int count = 0;
+                    Iterator<SelectionKey> iterator = selectedKeys.iterator();
+                    while (iterator.hasNext()) {
+                        SelectionKey key = iterator.next();
+                        iterator.remove();
+                        if (key.isValid()) {
+                            action.accept(key);
+                            count++;
+                            if (!isOpen())
+                                throw new ClosedSelectorException();
+                        }
+                    }
+                    return count;
+                }
+            }
+        }
+    }
+
     /**
      * Causes the first selection operation that has not yet returned to return
      * immediately.
@@ -26,6 +26,7 @@
 package java.nio.channels.spi;
 
 import java.nio.channels.*;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 
 /**
@@ -47,31 +48,34 @@ public abstract class AbstractSelectionKey
      */
     protected AbstractSelectionKey() { }
 
-    private volatile boolean valid = true;
+    // 1 while this key is valid, 0 once it has been cancelled or
+    // invalidated
+    private volatile int valid = 1;
+
+    private static final AtomicIntegerFieldUpdater<AbstractSelectionKey>
+        VALID = AtomicIntegerFieldUpdater.newUpdater(
+            AbstractSelectionKey.class, "valid");
 
     public final boolean isValid() {
-        return valid;
+        return valid != 0;
     }
 
     void invalidate() {                                 // package-private
-        valid = false;
+        valid = 0;
     }
 
     /**
      * Cancels this key.
      *
      * <p> If this key has not yet been cancelled then it is added to its
-     * selector's cancelled-key set while synchronized on that set.  </p>
+     * selector's cancelled-key set.  </p>
      */
     public final void cancel() {
-        // Synchronizing "this" to prevent this key from getting canceled
-        // multiple times by different threads, which might cause race
-        // condition between selector's select() and channel's close().
-        synchronized (this) {
-            if (valid) {
-                valid = false;
-                ((AbstractSelector)selector()).cancel(this);
-            }
+        // The CAS prevents this key from getting canceled multiple times by
+        // different threads, which might cause race condition between
+        // selector's select() and channel's close().
+        if (VALID.compareAndSet(this, 1, 0)) {
+            ((AbstractSelector)selector()).cancel(this);
         }
     }
 }
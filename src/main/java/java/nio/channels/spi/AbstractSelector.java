@@ -28,9 +28,9 @@ package java.nio.channels.spi;
 import java.io.IOException;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
-import java.util.HashSet;
 import java.util.Set;
 import sun.nio.ch.Interruptible;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 
@@ -85,12 +85,12 @@ public abstract class AbstractSelector
         this.provider = provider;
     }
 
-    private final Set<SelectionKey> cancelledKeys = new HashSet<SelectionKey>();
+    // Concurrent so that keys can be cancelled without contending with a
+    // selection operation that is processing the set
+    private final Set<SelectionKey> cancelledKeys = ConcurrentHashMap.newKeySet();
 
     void cancel(SelectionKey k) {                       // package-private
-        synchronized (cancelledKeys) {
-            cancelledKeys.add(k);
-        }
+        cancelledKeys.add(k);
     }
 
     /**
@@ -145,7 +145,10 @@ public abstract class AbstractSelector
     /**
      * Retrieves this selector's cancelled-key set.
      *
-     * <p> This set should only be used while synchronized upon it.  </p>
+     * <p> The set is safe for use by multiple concurrent threads and keys
+     * are added to it without synchronizing upon it.  Implementations may
+     * still synchronize upon it in order to exclude one another while
+     * processing it.  </p>
      *
      * @return  The cancelled-key set
      */
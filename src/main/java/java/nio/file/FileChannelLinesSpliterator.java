@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.file;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.UnsynchronizedBufferedReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import sun.misc.Cleaner;
+import sun.nio.ch.DirectBuffer;
+
+/**
+ * A file-based lines spliterator, leveraging a shared file channel and
+ * positional reads, with splitting on byte ranges.
+ *
+ * <p>A spliterator covers the byte range [index, fence) of the file.  To
+ * split, the bytes around the mid point of the range are mapped into memory
+ * and scanned for the nearest line separator; the range is divided just
+ * after it, so that every line belongs to exactly one spliterator.  For
+ * this to be correct the charset must encode '\n' and '\r' as single bytes
+ * that never occur within the encoding of another character, which holds
+ * for the supported charsets.
+ *
+ * <p>Once traversal starts, lines are decoded lazily from the remaining
+ * range of the file and the spliterator can no longer be split.
+ */
+final class FileChannelLinesSpliterator implements Spliterator<String> {
+
+    static final Set<String> SUPPORTED_CHARSET_NAMES;
+    static {
+        SUPPORTED_CHARSET_NAMES = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList(StandardCharsets.UTF_8.name(),
+                          StandardCharsets.ISO_8859_1.name(),
+                          StandardCharsets.US_ASCII.name())));
+    }
+
+    /**
+     * Maximum distance from the mid point of a range that is scanned for a
+     * line separator.  A range whose middle lies on a longer line is not
+     * split.
+     */
+    private static final int SPLIT_SCAN_LIMIT = 1 << 16;
+
+    private final FileChannel fc;
+    private final Charset cs;
+    private long index;
+    private final long fence;
+
+    // Non-null when traversing
+    private BufferedReader reader;
+
+    FileChannelLinesSpliterator(FileChannel fc, Charset cs, long index, long fence) {
+        this.fc = fc;
+        this.cs = cs;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        String line = readLine();
+        if (line != null) {
+            action.accept(line);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        String line;
+        while ((line = readLine()) != null) {
+            action.accept(line);
+        }
+    }
+
+    private BufferedReader getBufferedReader() {
+        /**
+         * A readable byte channel that reads bytes from an underlying
+         * file channel over a specified range.
+         */
+        ReadableByteChannel rrbc = new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                long bytesToRead = fence - index;
+                if (bytesToRead == 0)
+                    return -1;
+
+                int bytesRead;
+                if (bytesToRead < dst.remaining()) {
+                    // The number of bytes to read is less than remaining
+                    // bytes in the buffer
+                    // Snapshot the limit, reduce it, read, then restore
+                    int oldLimit = dst.limit();
+                    dst.limit((int) (dst.position() + bytesToRead));
+                    bytesRead = fc.read(dst, index);
+                    dst.limit(oldLimit);
+                } else {
+                    bytesRead = fc.read(dst, index);
+                }
+                if (bytesRead == -1) {
+                    index = fence;
+                    return bytesRead;
+                }
+
+                index += bytesRead;
+                return bytesRead;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return fc.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                fc.close();
+            }
+        };
+        // A spliterator is traversed by one thread at a time
+        return new UnsynchronizedBufferedReader(
+            Channels.newReader(rrbc, cs.newDecoder(), -1));
+    }
+
+    private String readLine() {
+        if (reader == null) {
+            reader = getBufferedReader();
+        }
+
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        // Cannot split after partial traverse
+        if (reader != null)
+            return null;
+
+        final long hi = fence, lo = index;
+        final long mid = (lo + hi) >>> 1;
+        if (mid <= lo)
+            return null;
+
+        // Map the bytes around the mid point, [start, end)
+        final long start = Math.max(lo, mid - SPLIT_SCAN_LIMIT);
+        final long end = Math.min(hi, mid + SPLIT_SCAN_LIMIT);
+        MappedByteBuffer b;
+        try {
+            b = fc.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int offset;
+        try {
+            offset = findSplit(b, (int) (mid - start));
+        } finally {
+            // The window is private to this method, unmap it eagerly
+            Cleaner cl = ((DirectBuffer) b).cleaner();
+            if (cl != null)
+                cl.clean();
+        }
+
+        if (offset < 0)
+            return null;
+
+        // The left spliterator will have the line-separator at the end
+        long split = start + offset;
+        return (split > lo && split < hi)
+               ? new FileChannelLinesSpliterator(fc, cs, lo, index = split)
+               : null;
+    }
+
+    /**
+     * Returns the offset in b just past the line separator nearest to the
+     * given offset, or -1 if there is no line separator in b.
+     */
+    private static int findSplit(ByteBuffer b, int mid) {
+        final int hi = b.limit();
+        int c = b.get(mid);
+        if (c == '\n') {
+            return mid + 1;
+        } else if (c == '\r') {
+            // Cannot tell whether this is a line separator of "\r\n"
+            if (mid + 1 == hi)
+                return -1;
+            // Check if a line separator of "\r\n"
+            return (b.get(mid + 1) == '\n') ? mid + 2 : mid + 1;
+        }
+
+        // Scan to the left and right of the mid point
+        int midL = mid - 1;
+        int midR = mid + 1;
+        while (midL >= 0 || midR < hi) {
+            // Sample to the left
+            if (midL >= 0) {
+                c = b.get(midL--);
+                if (c == '\n' || c == '\r') {
+                    // If c is "\r" then no need to check for "\r\n"
+                    // since the subsequent value was previously checked
+                    return midL + 2;
+                }
+            }
+            // Sample to the right
+            if (midR < hi) {
+                c = b.get(midR++);
+                if (c == '\n' || c == '\r') {
+                    // Check if line-separator is "\r\n"
+                    if (c == '\r') {
+                        if (midR == hi)
+                            return -1;
+                        if (b.get(midR) == '\n')
+                            midR++;
+                    }
+                    return midR;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public long estimateSize() {
+        // Use the number of bytes as an estimate.
+        // We could divide by a constant that is the average number of
+        // characters per-line, but that constant will be factored out.
+        return fence - index;
+    }
+
+    @Override
+    public long getExactSizeIfKnown() {
+        return -1;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.file;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.nio.file.FileTreeWalker.Event;
+import java.nio.file.FileTreeWalker.EventType;
+import sun.nio.fs.BasicFileAttributesHolder;
+
+/**
+ * A {@code Spliterator} over the nodes of a file tree that can be split, so
+ * that the tree is walked by several threads when used by a parallel
+ * stream.
+ *
+ * <p> Each spliterator holds a queue of directories whose entries have not
+ * been read yet.  A directory is read in full and closed before its entries
+ * are reported, so a spliterator has at most one directory open at a time.
+ * Sub-directories found while reading are added to the queue, and splitting
+ * hands half of the queue to the new spliterator.  The file tree is thus not
+ * traversed depth-first, and the order of the reported nodes is unspecified.
+ *
+ * <p> The attributes of directory entries are taken from the directory
+ * read itself when the file system provides them (see {@link
+ * BasicFileAttributesHolder}), avoiding a separate {@code stat} of each
+ * entry.
+ *
+ * <p> As for {@link FileTreeIterator}, an {@code IOException} accessing a
+ * file after the starting file is wrapped in an {@link UncheckedIOException}
+ * and a {@code SecurityException} accessing it is ignored.
+ */
+
+class FileTreeSpliterator implements Spliterator<Event> {
+    /**
+     * A directory waiting to be read, with the chain of its ancestors for
+     * cycle detection when following links.
+     */
+    private static final class DirectoryNode {
+        final Path dir;
+        final Object key;
+        final int depth;
+        final DirectoryNode parent;
+
+        DirectoryNode(Path dir, Object key, int depth, DirectoryNode parent) {
+            this.dir = dir;
+            this.key = key;
+            this.depth = depth;
+            this.parent = parent;
+        }
+    }
+
+    private final boolean followLinks;
+    private final LinkOption[] linkOptions;
+    private final int maxDepth;
+
+    // directories not yet read
+    private final ArrayDeque<DirectoryNode> pending;
+    // events for the entries of the last directory read
+    private final ArrayDeque<Event> ready = new ArrayDeque<>();
+
+    private FileTreeSpliterator(boolean followLinks, int maxDepth,
+                                ArrayDeque<DirectoryNode> pending)
+    {
+        this.followLinks = followLinks;
+        this.linkOptions = (followLinks) ? new LinkOption[0] :
+            new LinkOption[] { LinkOption.NOFOLLOW_LINKS };
+        this.maxDepth = maxDepth;
+        this.pending = pending;
+    }
+
+    /**
+     * Creates a spliterator over the file tree rooted at the given file.
+     *
+     * @throws  IllegalArgumentException
+     *          if {@code maxDepth} is negative
+     * @throws  IOException
+     *          if an I/O errors occurs reading the attributes of the
+     *          starting file
+     * @throws  SecurityException
+     *          if the security manager denies access to the starting file
+     */
+    FileTreeSpliterator(Path start, int maxDepth, FileVisitOption... options)
+        throws IOException
+    {
+        this(isFollowLinks(options), maxDepth, new ArrayDeque<>());
+        if (maxDepth < 0)
+            throw new IllegalArgumentException("'maxDepth' is negative");
+
+        BasicFileAttributes attrs = getAttributes(start, false);
+        ready.add(new Event(EventType.ENTRY, start, attrs));
+        if (maxDepth > 0 && attrs.isDirectory())
+            pending.add(new DirectoryNode(start, attrs.fileKey(), 0, null));
+    }
+
+    private static boolean isFollowLinks(FileVisitOption... options) {
+        boolean fl = false;
+        for (FileVisitOption option: options) {
+            // will throw NPE if options contains null
+            switch (option) {
+                case FOLLOW_LINKS : fl = true; break;
+                case PARALLEL : break;
+                default:
+                    throw new AssertionError("Should not get here");
+            }
+        }
+        return fl;
+    }
+
+    /**
+     * Returns the attributes of the given file, as FileTreeWalker does.
+     */
+    private BasicFileAttributes getAttributes(Path file, boolean canUseCached)
+        throws IOException
+    {
+        // if attributes are cached then use them if possible
+        if (canUseCached &&
+            (file instanceof BasicFileAttributesHolder) &&
+            (System.getSecurityManager() == null))
+        {
+            BasicFileAttributes cached = ((BasicFileAttributesHolder)file).get();
+            if (cached != null && (!followLinks || !cached.isSymbolicLink())) {
+                return cached;
+            }
+        }
+
+        // attempt to get attributes of file. If fails and we are following
+        // links then a link target might not exist so get attributes of link
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class, linkOptions);
+        } catch (IOException ioe) {
+            if (!followLinks)
+                throw ioe;
+            return Files.readAttributes(file,
+                                        BasicFileAttributes.class,
+                                        LinkOption.NOFOLLOW_LINKS);
+        }
+    }
+
+    /**
+     * Returns true if walking into the given directory would result in a
+     * file system loop/cycle.
+     */
+    private static boolean wouldLoop(Path dir, Object key, DirectoryNode ancestor) {
+        for (; ancestor != null; ancestor = ancestor.parent) {
+            Object ancestorKey = ancestor.key;
+            if (key != null && ancestorKey != null) {
+                if (key.equals(ancestorKey))
+                    return true;
+            } else {
+                try {
+                    if (Files.isSameFile(dir, ancestor.dir))
+                        return true;
+                } catch (IOException | SecurityException x) {
+                    // ignore
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the entries of the given directory into the ready queue, adding
+     * any sub-directories to the pending queue.
+     */
+    private void read(DirectoryNode node) {
+        int depth = node.depth + 1;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(node.dir)) {
+            for (Path entry: stream) {
+                BasicFileAttributes attrs;
+                try {
+                    attrs = getAttributes(entry, true);
+                } catch (SecurityException se) {
+                    continue;
+                }
+                if (depth < maxDepth && attrs.isDirectory()) {
+                    Object key = attrs.fileKey();
+                    if (followLinks && wouldLoop(entry, key, node))
+                        throw new FileSystemLoopException(entry.toString());
+                    pending.add(new DirectoryNode(entry, key, depth, node));
+                }
+                ready.add(new Event(EventType.ENTRY, entry, attrs));
+            }
+        } catch (DirectoryIteratorException x) {
+            throw new UncheckedIOException(x.getCause());
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        } catch (SecurityException se) {
+            // as with FileTreeWalker, the directory is not walked into
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Event> action) {
+        Event ev;
+        while ((ev = ready.poll()) == null) {
+            DirectoryNode node = pending.poll();
+            if (node == null)
+                return false;
+            read(node);
+        }
+        action.accept(ev);
+        return true;
+    }
+
+    @Override
+    public Spliterator<Event> trySplit() {
+        // read the only pending directory, such as the starting directory,
+        // to make its sub-directories available; its entries stay here
+        if (pending.size() == 1)
+            read(pending.poll());
+
+        int n = pending.size() >>> 1;
+        if (n == 0)
+            return null;
+        ArrayDeque<DirectoryNode> half = new ArrayDeque<>(n);
+        for (int i = 0; i < n; i++)
+            half.add(pending.pollLast());
+        return new FileTreeSpliterator(followLinks, maxDepth, half);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.DISTINCT | Spliterator.NONNULL;
+    }
+}
@@ -180,6 +180,7 @@ class FileTreeWalker implements Closeable {
             // will throw NPE if options contains null
             switch (option) {
                 case FOLLOW_LINKS : fl = true; break;
+                case PARALLEL : break;  // only used by Files.walk/find
                 default:
                     throw new AssertionError("Should not get here");
             }
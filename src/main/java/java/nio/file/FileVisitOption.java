@@ -37,5 +37,17 @@ public enum FileVisitOption {
     /**
      * Follow symbolic links.
      */
-    FOLLOW_LINKS;
+    FOLLOW_LINKS,
+
+    /**
+     * Walk the file tree with several threads.  When given to {@link
+     * Files#walk(Path,int,FileVisitOption[]) walk} or {@link
+     * Files#find find}, the returned stream is parallel and the file tree
+     * is split between the threads that traverse it, so the elements are
+     * not in depth-first order.  This option is ignored by {@link
+     * Files#walkFileTree walkFileTree}.
+     *
+     * @since 9
+     */
+    PARALLEL;
 }
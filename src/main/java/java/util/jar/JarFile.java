@@ -29,12 +29,19 @@ import java.io.*;
 import java.lang.ref.SoftReference;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import java.util.zip.*;
 import java.security.CodeSigner;
 import java.security.cert.Certificate;
 import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.security.CodeSource;
 import sun.misc.IOUtils;
 import sun.security.action.GetPropertyAction;
@@ -265,7 +272,15 @@ class JarFile extends ZipFile {
     private class JarEntryIterator implements Enumeration<JarEntry>,
             Iterator<JarEntry>
     {
-        final Enumeration<? extends ZipEntry> e = JarFile.super.entries();
+        final Enumeration<? extends ZipEntry> e;
+
+        JarEntryIterator() {
+            this(JarFile.super.entries());
+        }
+
+        JarEntryIterator(Enumeration<? extends ZipEntry> e) {
+            this.e = e;
+        }
 
         public boolean hasNext() {
             return e.hasMoreElements();
@@ -292,6 +307,22 @@ class JarFile extends ZipFile {
         return new JarEntryIterator();
     }
 
+    /**
+     * Returns an enumeration of the jar file entries whose names start
+     * with the specified prefix, in ascending order of name.
+     *
+     * @param prefix the prefix of the names of the entries
+     * @return an enumeration of the matching jar file entries
+     * @throws IllegalStateException
+     *         may be thrown if the jar file has been closed
+     * @see ZipFile#entries(String)
+     * @since 9
+     */
+    @Override
+    public Enumeration<JarEntry> entries(String prefix) {
+        return new JarEntryIterator(super.entries(prefix));
+    }
+
     @Override
     public Stream<JarEntry> stream() {
         return StreamSupport.stream(Spliterators.spliterator(
@@ -434,6 +465,111 @@ class JarFile extends ZipFile {
         }
     }
 
+    /*
+     * Called once the verifier has processed the META-INF entries.  If
+     * background verification is configured, starts verifying the signed
+     * entries in the background.
+     */
+    private void verifierInitialized() {
+        JarVerifier v = jv;
+        if (v != null && Preverifier.threads > 0) {
+            Preverifier.start(this, v);
+        }
+    }
+
+    /*
+     * Verifies the signed entries of jar files on background threads, so
+     * that their signers are known, and a tampered entry is reported,
+     * before the application reads them.  Entries are still digested
+     * every time they are read.  The number of threads is given by the
+     * jdk.jar.preverifyThreads system property; there is no background
+     * verification if it is not set or is not a valid number.
+     */
+    private static final class Preverifier {
+        static final int threads;
+        private static ExecutorService executor;
+
+        static {
+            int n = 0;
+            String prop = AccessController.doPrivileged(
+                new GetPropertyAction("jdk.jar.preverifyThreads"));
+            if (prop != null) {
+                try {
+                    n = Integer.parseInt(prop);
+                } catch (NumberFormatException e) {
+                    n = 0;
+                }
+            }
+            threads = Math.max(n, 0);
+        }
+
+        private static synchronized ExecutorService executor() {
+            if (executor == null) {
+                ThreadPoolExecutor tpe = new ThreadPoolExecutor(
+                    threads, threads, 30L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(),
+                    new ThreadFactory() {
+                        public Thread newThread(final Runnable r) {
+                            return AccessController.doPrivileged(
+                                new PrivilegedAction<Thread>() {
+                                    public Thread run() {
+                                        Thread t = new Thread(r, "JarFile Preverifier");
+                                        t.setDaemon(true);
+                                        t.setContextClassLoader(null);
+                                        return t;
+                                    }
+                                });
+                        }
+                    });
+                tpe.allowCoreThreadTimeOut(true);
+                executor = tpe;
+            }
+            return executor;
+        }
+
+        /*
+         * Reads the signed entries of the jar file that have not been
+         * verified yet, each through a verifying stream, on up to
+         * "threads" threads.  An entry that fails verification is left
+         * unverified and fails again when it is read.
+         */
+        static void start(final JarFile jar, final JarVerifier jv) {
+            final List<String> names = jv.unverifiedNames();
+            if (names.isEmpty()) {
+                return;
+            }
+            final AtomicInteger next = new AtomicInteger();
+            ExecutorService ex = executor();
+            for (int i = 0; i < threads; i++) {
+                ex.execute(new Runnable() {
+                    public void run() {
+                        byte[] buf = new byte[8192];
+                        int k;
+                        try {
+                            while ((k = next.getAndIncrement()) < names.size()) {
+                                JarEntry je = jar.getJarEntry(names.get(k));
+                                if (je == null) {
+                                    continue;
+                                }
+                                try (InputStream in = jar.getInputStream(je)) {
+                                    while (in.read(buf, 0, buf.length) != -1);
+                                } catch (IOException | SecurityException e) {
+                                    if (JarVerifier.debug != null) {
+                                        JarVerifier.debug.println(
+                                            "preverify " + names.get(k) +
+                                            ": " + e);
+                                    }
+                                }
+                            }
+                        } catch (IllegalStateException e) {
+                            // the jar file has been closed
+                        }
+                    }
+                });
+            }
+        }
+    }
+
     /*
      * Reads all the bytes for a given entry. Used to process the
      * META-INF files.
@@ -472,6 +608,7 @@ class JarFile extends ZipFile {
             // verify
             if (jv == null)
                 return super.getInputStream(ze);
+            verifierInitialized();
         }
 
         // wrap a verifier stream around the real stream
@@ -634,6 +771,7 @@ class JarFile extends ZipFile {
             } finally {
                 isInitializing.set(Boolean.FALSE);
             }
+            verifierInitialized();
         }
     }
 
@@ -96,6 +96,11 @@ class JarVerifier {
     /** collect -DIGEST-MANIFEST values for blacklist */
     private List<Object> manifestDigests;
 
+    /** held while a name is looked up in, or moved from sigFileSigners
+        to verifiedSigners, so that a signed entry read by one thread while
+        another verifies it is always found in one of the two */
+    private final Object signersLock = new Object();
+
     public JarVerifier(String name, byte rawBytes[]) {
         manifestName = name;
         manifestRawBytes = rawBytes;
@@ -185,10 +190,12 @@ class JarVerifier {
         // only set the jev object for entries that have a signature
         // (either verified or not)
         if (!name.equalsIgnoreCase(JarFile.MANIFEST_NAME)) {
-            if (sigFileSigners.get(name) != null ||
-                    verifiedSigners.get(name) != null) {
-                mev.setEntry(name, je);
-                return;
+            synchronized (signersLock) {
+                if (sigFileSigners.get(name) != null ||
+                        verifiedSigners.get(name) != null) {
+                    mev.setEntry(name, je);
+                    return;
+                }
             }
         }
 
@@ -198,6 +205,16 @@ class JarVerifier {
         return;
     }
 
+    /**
+     * Returns the names of the signed entries whose digests have not
+     * been verified yet.
+     */
+    List<String> unverifiedNames() {
+        synchronized (signersLock) {
+            return new ArrayList<>(sigFileSigners.keySet());
+        }
+    }
+
     /**
      * update a single byte.
      */
@@ -244,7 +261,12 @@ class JarVerifier {
         if (!parsingBlockOrSF) {
             JarEntry je = mev.getEntry();
             if ((je != null) && (je.signers == null)) {
-                je.signers = mev.verify(verifiedSigners, sigFileSigners);
+                CodeSigner[] signers;
+                synchronized (signersLock) {
+                    // moves the name from sigFileSigners to verifiedSigners
+                    signers = mev.verify(verifiedSigners, sigFileSigners);
+                }
+                je.signers = signers;
                 je.certs = mapSignersToCertArray(je.signers);
             }
         } else {
@@ -25,6 +25,9 @@
 
 package java.util.zip;
 
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
 /**
  * This class provides support for general purpose compression using the
  * popular ZLIB compression library. The ZLIB compression library was
@@ -74,7 +77,7 @@ public
 class Deflater {
 
     private final ZStreamRef zsRef;
-    private byte[] buf = new byte[0];
+    private byte[] buf = defaultBuf;
     private int off, len;
     private int level, strategy;
     private boolean setParams;
@@ -82,6 +85,16 @@ class Deflater {
     private long bytesRead;
     private long bytesWritten;
 
+    // Input set by setInput(ByteBuffer), or null if input is in buf
+    private ByteBuffer input;
+    // Staging arrays for buffers that are not backed by an accessible array
+    private byte[] inStage, outStage;
+
+    private static final byte[] defaultBuf = new byte[0];
+
+    // Maximum number of bytes staged per call for a direct buffer
+    private static final int STAGE_SIZE = 32 * 1024;
+
     /**
      * Compression method for the deflate algorithm (the only one currently
      * supported).
@@ -204,6 +217,7 @@ class Deflater {
             throw new ArrayIndexOutOfBoundsException();
         }
         synchronized (zsRef) {
+            this.input = null;
             this.buf = b;
             this.off = off;
             this.len = len;
@@ -220,6 +234,40 @@ class Deflater {
         setInput(b, 0, b.length);
     }
 
+    /**
+     * Sets input data for compression. This should be called whenever
+     * needsInput() returns true indicating that more input data is required.
+     * <p>
+     * The given buffer's position will be advanced as deflate
+     * operations are performed, up to the buffer's limit.
+     * The input buffer may be modified (refilled) between deflate
+     * operations; doing so is equivalent to creating a new buffer
+     * and setting it with this method.
+     * <p>
+     * Modifying the input buffer's contents, position, or limit
+     * concurrently with a deflate operation will result in
+     * undefined behavior, which may include incorrect operation
+     * results or operation failure.
+     * <p>
+     * A buffer that is backed by an accessible array is deflated from
+     * in place.  The contents of other buffers, such as direct buffers,
+     * are copied in bounded chunks into an array owned by this deflater.
+     *
+     * @param input the input data bytes
+     * @see Deflater#needsInput
+     * @since 9
+     */
+    public void setInput(ByteBuffer input) {
+        if (input == null) {
+            throw new NullPointerException();
+        }
+        synchronized (zsRef) {
+            this.input = input;
+            this.buf = defaultBuf;
+            this.off = this.len = 0;
+        }
+    }
+
     /**
      * Sets preset dictionary for compression. A preset dictionary is used
      * when the history buffer can be predetermined. When the data is later
@@ -319,7 +367,7 @@ class Deflater {
      */
     public boolean needsInput() {
         synchronized (zsRef) {
-            return len <= 0;
+            return input == null ? len <= 0 : !input.hasRemaining();
         }
     }
 
@@ -440,16 +488,135 @@ class Deflater {
             ensureOpen();
             if (flush == NO_FLUSH || flush == SYNC_FLUSH ||
                 flush == FULL_FLUSH) {
-                int thisLen = this.len;
-                int n = deflateBytes(zsRef.address(), b, off, len, flush);
-                bytesWritten += n;
-                bytesRead += (thisLen - this.len);
-                return n;
+                return deflateInto(b, off, len, flush);
             }
             throw new IllegalArgumentException();
         }
     }
 
+    /**
+     * Compresses the input data and fills the specified buffer with
+     * compressed data. Returns actual number of bytes of compressed data.
+     * A return value of 0 indicates that {@link #needsInput() needsInput}
+     * should be called in order to determine if more input data is required.
+     *
+     * <p>This method uses {@link #NO_FLUSH} as its compression flush mode.
+     * An invocation of this method of the form {@code deflater.deflate(output)}
+     * yields the same result as the invocation of
+     * {@code deflater.deflate(output, Deflater.NO_FLUSH)}.
+     *
+     * @param output the buffer for the compressed data
+     * @return the actual number of bytes of compressed data written to the
+     *         output buffer
+     * @throws ReadOnlyBufferException if the given output buffer is read-only
+     * @since 9
+     */
+    public int deflate(ByteBuffer output) {
+        return deflate(output, NO_FLUSH);
+    }
+
+    /**
+     * Compresses the input data and fills the specified buffer with
+     * compressed data. Returns actual number of bytes of data compressed.
+     *
+     * <p>The compressed bytes are written starting at the buffer's
+     * position, up to its limit, and the position is advanced by the
+     * number of bytes written.  The flush modes have the same meaning
+     * as for {@link #deflate(byte[], int, int, int)}; in particular, with
+     * {@link #SYNC_FLUSH} or {@link #FULL_FLUSH} the return value should
+     * be checked to ensure the buffer had enough space, and the method
+     * invoked again with more space if it did not.
+     *
+     * <p>A buffer that is backed by an accessible array is written in
+     * place.  Otherwise at most 32K bytes are compressed per invocation,
+     * through an array owned by this deflater.
+     *
+     * @param output the buffer for the compressed data
+     * @param flush the compression flush mode
+     * @return the actual number of bytes of compressed data written to
+     *         the output buffer
+     * @throws IllegalArgumentException if the flush mode is invalid
+     * @throws ReadOnlyBufferException if the given output buffer is read-only
+     * @since 9
+     */
+    public int deflate(ByteBuffer output, int flush) {
+        if (output.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (flush != NO_FLUSH && flush != SYNC_FLUSH && flush != FULL_FLUSH) {
+            throw new IllegalArgumentException();
+        }
+        synchronized (zsRef) {
+            ensureOpen();
+            int pos = output.position();
+            int rem = Math.max(output.limit() - pos, 0);
+            int n;
+            if (output.hasArray()) {
+                n = deflateInto(output.array(), output.arrayOffset() + pos,
+                                rem, flush);
+                output.position(pos + n);
+            } else {
+                if (outStage == null) {
+                    outStage = new byte[STAGE_SIZE];
+                }
+                n = deflateInto(outStage, 0, Math.min(rem, STAGE_SIZE), flush);
+                output.put(outStage, 0, n);
+            }
+            return n;
+        }
+    }
+
+    /*
+     * Deflates into b from the current input, which is either buf/off/len
+     * or the input buffer, and updates the statistics and the position of
+     * the input buffer.
+     */
+    private int deflateInto(byte[] b, int off, int len, int flush) {
+        assert Thread.holdsLock(zsRef);
+        ByteBuffer in = this.input;
+        int pos = 0;
+        // finish must not take effect until the last chunk is staged
+        boolean holdFinish = false;
+        if (in != null) {
+            pos = in.position();
+            int rem = Math.max(in.limit() - pos, 0);
+            if (in.hasArray()) {
+                this.buf = in.array();
+                this.off = in.arrayOffset() + pos;
+                this.len = rem;
+            } else {
+                if (inStage == null) {
+                    inStage = new byte[STAGE_SIZE];
+                }
+                int n = Math.min(rem, STAGE_SIZE);
+                in.duplicate().get(inStage, 0, n);
+                this.buf = inStage;
+                this.off = 0;
+                this.len = n;
+                holdFinish = finish && n < rem;
+            }
+        }
+        int thisLen = this.len;
+        if (holdFinish) {
+            finish = false;
+        }
+        try {
+            int n = deflateBytes(zsRef.address(), b, off, len, flush);
+            bytesWritten += n;
+            bytesRead += (thisLen - this.len);
+            return n;
+        } finally {
+            if (holdFinish) {
+                finish = true;
+            }
+            if (in != null) {
+                in.position(pos + (thisLen - this.len));
+                this.buf = defaultBuf;
+                this.off = this.len = 0;
+            }
+        }
+    }
+
     /**
      * Returns the ADLER-32 value of the uncompressed data.
      * @return the ADLER-32 value of the uncompressed data
@@ -523,6 +690,8 @@ class Deflater {
             reset(zsRef.address());
             finish = false;
             finished = false;
+            input = null;
+            buf = defaultBuf;
             off = len = 0;
             bytesRead = bytesWritten = 0;
         }
@@ -542,6 +711,8 @@ class Deflater {
             if (addr != 0) {
                 end(addr);
                 buf = null;
+                input = null;
+                inStage = outStage = null;
             }
         }
     }
@@ -559,6 +730,12 @@ class Deflater {
             throw new NullPointerException("Deflater has been closed");
     }
 
+    boolean ended() {
+        synchronized (zsRef) {
+            return zsRef.address() == 0;
+        }
+    }
+
     private static native void initIDs();
     private native static long init(int level, int strategy, boolean nowrap);
     private native static void setDictionary(long addr, byte[] b, int off, int len);
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of reusable {@link Deflater} instances that share the same
+ * compression level and {@code nowrap} setting.
+ *
+ * <p>Each deflater owns a native zlib stream that is only released by
+ * {@link Deflater#end end} or, failing that, by its finalizer.  Code that
+ * creates a deflater per operation therefore allocates and frees native
+ * memory each time and puts a steady load on the finalizer thread.  An
+ * deflater obtained with {@link #acquire} and returned with
+ * {@link #release} is instead {@linkplain Deflater#reset reset} and kept
+ * for the next caller, up to a maximum number of idle deflaters; beyond
+ * that, released deflaters are ended at once.
+ *
+ * <p>The pool may be used by concurrent threads.  A deflater must be
+ * used by one thread at a time while it is acquired, and must not be used
+ * after it has been released.
+ *
+ * @see InflaterPool
+ * @since 9
+ */
+public final class DeflaterPool {
+
+    private final int level;
+    private final boolean nowrap;
+    private final int maxIdle;
+    private final ConcurrentLinkedQueue<Deflater> idle =
+        new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * Creates a new pool of deflaters.
+     *
+     * @param level the compression level (0-9) of the deflaters
+     * @param nowrap if true then the deflaters support GZIP compatible
+     *               compression, as for {@link Deflater#Deflater(int, boolean)}
+     * @param maxIdle the maximum number of released deflaters kept for reuse
+     * @throws IllegalArgumentException if the compression level is invalid
+     *         or {@code maxIdle} is negative
+     */
+    public DeflaterPool(int level, boolean nowrap, int maxIdle) {
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION)
+            throw new IllegalArgumentException("invalid compression level");
+        if (maxIdle < 0)
+            throw new IllegalArgumentException("maxIdle < 0");
+        this.level = level;
+        this.nowrap = nowrap;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Returns a deflater from this pool, creating one if no idle deflater
+     * is available.  The deflater is in the state of a newly created one.
+     *
+     * @return a deflater
+     * @throws IllegalStateException if this pool has been closed
+     */
+    public Deflater acquire() {
+        if (closed)
+            throw new IllegalStateException("DeflaterPool closed");
+        Deflater def;
+        while ((def = idle.poll()) != null) {
+            idleCount.decrementAndGet();
+            if (!def.ended())
+                return def;
+        }
+        return new Deflater(level, nowrap);
+    }
+
+    /**
+     * Returns a deflater to this pool.  The deflater is reset, with the
+     * compression level and strategy of the pool restored, and kept for
+     * reuse if the pool is open and has room for it; it is ended otherwise.
+     * Deflaters that have already been ended are ignored.
+     *
+     * @param def a deflater acquired from this pool
+     */
+    public void release(Deflater def) {
+        if (def.ended())
+            return;
+        if (!closed) {
+            if (idleCount.incrementAndGet() <= maxIdle) {
+                def.reset();
+                def.setLevel(level);
+                def.setStrategy(Deflater.DEFAULT_STRATEGY);
+                idle.add(def);
+                // close() may have drained the queue in the meantime
+                if (closed)
+                    drain();
+                return;
+            }
+            idleCount.decrementAndGet();
+        }
+        def.end();
+    }
+
+    /**
+     * Returns the number of deflaters currently held for reuse.
+     *
+     * @return the number of idle deflaters
+     */
+    public int idleCount() {
+        return Math.max(0, Math.min(idleCount.get(), maxIdle));
+    }
+
+    /**
+     * Closes this pool and ends all idle deflaters.  Deflaters that are
+     * released after the pool has been closed are ended.
+     */
+    public void close() {
+        closed = true;
+        drain();
+    }
+
+    private void drain() {
+        Deflater def;
+        while ((def = idle.poll()) != null) {
+            idleCount.decrementAndGet();
+            def.end();
+        }
+    }
+}
@@ -25,6 +25,9 @@
 
 package java.util.zip;
 
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
 /**
  * This class provides support for general purpose decompression using the
  * popular ZLIB compression library. The ZLIB compression library was
@@ -81,8 +84,16 @@ class Inflater {
     private long bytesRead;
     private long bytesWritten;
 
+    // Input set by setInput(ByteBuffer), or null if input is in buf
+    private ByteBuffer input;
+    // Staging arrays for buffers that are not backed by an accessible array
+    private byte[] inStage, outStage;
+
     private static final byte[] defaultBuf = new byte[0];
 
+    // Maximum number of bytes staged per call for a direct buffer
+    private static final int STAGE_SIZE = 32 * 1024;
+
     static {
         /* Zip library is loaded from System.initializeSystemClass */
         initIDs();
@@ -127,12 +138,48 @@ class Inflater {
             throw new ArrayIndexOutOfBoundsException();
         }
         synchronized (zsRef) {
+            this.input = null;
             this.buf = b;
             this.off = off;
             this.len = len;
         }
     }
 
+    /**
+     * Sets input data for decompression. Should be called whenever
+     * needsInput() returns true indicating that more input data is
+     * required.
+     * <p>
+     * The given buffer's position will be advanced as inflate
+     * operations are performed, up to the buffer's limit.
+     * The input buffer may be modified (refilled) between inflate
+     * operations; doing so is equivalent to creating a new buffer
+     * and setting it with this method.
+     * <p>
+     * Modifying the input buffer's contents, position, or limit
+     * concurrently with an inflate operation will result in
+     * undefined behavior, which may include incorrect operation
+     * results or operation failure.
+     * <p>
+     * A buffer that is backed by an accessible array is inflated from
+     * in place.  The contents of other buffers, such as direct buffers,
+     * are copied in bounded chunks into an array owned by this inflater.
+     *
+     * @param input the input data bytes
+     * @see Inflater#needsInput
+     * @since 9
+     */
+    public void setInput(ByteBuffer input) {
+        if (input == null) {
+            throw new NullPointerException();
+        }
+        synchronized (zsRef) {
+            this.input = input;
+            this.buf = defaultBuf;
+            this.off = this.len = 0;
+        }
+    }
+
     /**
      * Sets input data for decompression. Should be called whenever
      * needsInput() returns true indicating that more input data is
@@ -190,7 +237,7 @@ class Inflater {
      */
     public int getRemaining() {
         synchronized (zsRef) {
-            return len;
+            return input == null ? len : input.remaining();
         }
     }
 
@@ -202,7 +249,7 @@ class Inflater {
      */
     public boolean needsInput() {
         synchronized (zsRef) {
-            return len <= 0;
+            return input == null ? len <= 0 : !input.hasRemaining();
         }
     }
 
@@ -255,11 +302,97 @@ class Inflater {
         }
         synchronized (zsRef) {
             ensureOpen();
-            int thisLen = this.len;
+            return inflateInto(b, off, len);
+        }
+    }
+
+    /**
+     * Uncompresses bytes into the specified buffer.
+     * <p>
+     * The uncompressed bytes are written starting at the buffer's
+     * position, up to its limit, and the position is advanced by the
+     * number of bytes written.  A return value of 0 indicates that
+     * needsInput() or needsDictionary() should be called in order to
+     * determine if more input data or a preset dictionary is required.
+     * In the latter case, getAdler() can be used to get the Adler-32
+     * value of the dictionary required.
+     * <p>
+     * A buffer that is backed by an accessible array is written in
+     * place.  Otherwise at most 32K bytes are uncompressed per
+     * invocation, through an array owned by this inflater.
+     *
+     * @param output the buffer for the uncompressed data
+     * @return the actual number of uncompressed bytes
+     * @throws DataFormatException if the compressed data format is invalid
+     * @throws ReadOnlyBufferException if the given output buffer is read-only
+     * @see Inflater#needsInput
+     * @see Inflater#needsDictionary
+     * @since 9
+     */
+    public int inflate(ByteBuffer output) throws DataFormatException {
+        if (output.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        synchronized (zsRef) {
+            ensureOpen();
+            int pos = output.position();
+            int rem = Math.max(output.limit() - pos, 0);
+            int n;
+            if (output.hasArray()) {
+                n = inflateInto(output.array(), output.arrayOffset() + pos, rem);
+                output.position(pos + n);
+            } else {
+                if (outStage == null) {
+                    outStage = new byte[STAGE_SIZE];
+                }
+                n = inflateInto(outStage, 0, Math.min(rem, STAGE_SIZE));
+                output.put(outStage, 0, n);
+            }
+            return n;
+        }
+    }
+
+    /*
+     * Inflates into b from the current input, which is either buf/off/len
+     * or the input buffer, and updates the statistics and the position of
+     * the input buffer.
+     */
+    private int inflateInto(byte[] b, int off, int len)
+        throws DataFormatException
+    {
+        assert Thread.holdsLock(zsRef);
+        ByteBuffer in = this.input;
+        int pos = 0;
+        if (in != null) {
+            pos = in.position();
+            int rem = Math.max(in.limit() - pos, 0);
+            if (in.hasArray()) {
+                this.buf = in.array();
+                this.off = in.arrayOffset() + pos;
+                this.len = rem;
+            } else {
+                if (inStage == null) {
+                    inStage = new byte[STAGE_SIZE];
+                }
+                int n = Math.min(rem, STAGE_SIZE);
+                in.duplicate().get(inStage, 0, n);
+                this.buf = inStage;
+                this.off = 0;
+                this.len = n;
+            }
+        }
+        int thisLen = this.len;
+        try {
             int n = inflateBytes(zsRef.address(), b, off, len);
             bytesWritten += n;
             bytesRead += (thisLen - this.len);
             return n;
+        } finally {
+            if (in != null) {
+                in.position(pos + (thisLen - this.len));
+                this.buf = defaultBuf;
+                this.off = this.len = 0;
+            }
         }
     }
 
@@ -350,6 +483,7 @@ class Inflater {
         synchronized (zsRef) {
             ensureOpen();
             reset(zsRef.address());
+            input = null;
             buf = defaultBuf;
             finished = false;
             needDict = false;
@@ -372,6 +506,8 @@ class Inflater {
             if (addr != 0) {
                 end(addr);
                 buf = null;
+                input = null;
+                inStage = outStage = null;
             }
         }
     }
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of reusable {@link Inflater} instances that share the same
+ * {@code nowrap} setting.
+ *
+ * <p>Each inflater owns a native zlib stream that is only released by
+ * {@link Inflater#end end} or, failing that, by its finalizer.  Code that
+ * creates an inflater per operation therefore allocates and frees native
+ * memory each time and puts a steady load on the finalizer thread.  An
+ * inflater obtained with {@link #acquire} and returned with
+ * {@link #release} is instead {@linkplain Inflater#reset reset} and kept
+ * for the next caller, up to a maximum number of idle inflaters; beyond
+ * that, released inflaters are ended at once.
+ *
+ * <p>The pool may be used by concurrent threads.  An inflater must be
+ * used by one thread at a time while it is acquired, and must not be used
+ * after it has been released.
+ *
+ * @see DeflaterPool
+ * @since 9
+ */
+public final class InflaterPool {
+
+    private final boolean nowrap;
+    private final int maxIdle;
+    private final ConcurrentLinkedQueue<Inflater> idle =
+        new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    /**
+     * Creates a new pool of inflaters.
+     *
+     * @param nowrap if true then the inflaters support GZIP compatible
+     *               compression, as for {@link Inflater#Inflater(boolean)}
+     * @param maxIdle the maximum number of released inflaters kept for reuse
+     * @throws IllegalArgumentException if {@code maxIdle} is negative
+     */
+    public InflaterPool(boolean nowrap, int maxIdle) {
+        if (maxIdle < 0)
+            throw new IllegalArgumentException("maxIdle < 0");
+        this.nowrap = nowrap;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Returns an inflater from this pool, creating one if no idle inflater
+     * is available.  The inflater is in the state of a newly created one.
+     *
+     * @return an inflater
+     * @throws IllegalStateException if this pool has been closed
+     */
+    public Inflater acquire() {
+        if (closed)
+            throw new IllegalStateException("InflaterPool closed");
+        Inflater inf;
+        while ((inf = idle.poll()) != null) {
+            idleCount.decrementAndGet();
+            if (!inf.ended())
+                return inf;
+        }
+        return new Inflater(nowrap);
+    }
+
+    /**
+     * Returns an inflater to this pool.  The inflater is reset and kept for
+     * reuse if the pool is open and has room for it, and is ended otherwise.
+     * Inflaters that have already been ended are ignored.
+     *
+     * @param inf an inflater acquired from this pool
+     */
+    public void release(Inflater inf) {
+        if (inf.ended())
+            return;
+        if (!closed) {
+            if (idleCount.incrementAndGet() <= maxIdle) {
+                inf.reset();
+                idle.add(inf);
+                // close() may have drained the queue in the meantime
+                if (closed)
+                    drain();
+                return;
+            }
+            idleCount.decrementAndGet();
+        }
+        inf.end();
+    }
+
+    /**
+     * Returns the number of inflaters currently held for reuse.
+     *
+     * @return the number of idle inflaters
+     */
+    public int idleCount() {
+        return Math.max(0, Math.min(idleCount.get(), maxIdle));
+    }
+
+    /**
+     * Closes this pool and ends all idle inflaters.  Inflaters that are
+     * released after the pool has been closed are ended.
+     */
+    public void close() {
+        closed = true;
+        drain();
+    }
+
+    private void drain() {
+        Inflater inf;
+        while ((inf = idle.poll()) != null) {
+            idleCount.decrementAndGet();
+            inf.end();
+        }
+    }
+}
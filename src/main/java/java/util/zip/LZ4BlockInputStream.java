@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.util.zip.LZ4BlockOutputStream.*;
+
+/**
+ * This class implements a stream filter for reading compressed data in
+ * the LZ4 block stream format written by {@link LZ4BlockOutputStream}.
+ * The index and trailer at the end of the compressed data are skipped, so
+ * that the underlying stream is positioned after the compressed data when
+ * the end of the stream is reached.
+ *
+ * @see LZ4BlockOutputStream
+ * @see LZ4BlockReader
+ * @since 9
+ */
+public class LZ4BlockInputStream extends FilterInputStream {
+
+    private final LZ4Decompressor decompressor = new LZ4Decompressor();
+    private final CRC32 crc;
+    private final byte[] block;
+    private byte[] compressed = new byte[0];
+    private final byte[] head = new byte[HEADER_SIZE];
+    private int pos;
+    private int count;
+    private boolean eof;
+    private boolean closed;
+
+    /**
+     * Creates a new input stream and reads the stream header.
+     * @param in the input stream
+     * @exception ZipException if the stream header is not valid
+     * @exception IOException if an I/O error has occurred
+     */
+    public LZ4BlockInputStream(InputStream in) throws IOException {
+        super(in);
+        if (in == null) {
+            throw new NullPointerException();
+        }
+        readFully(head, 0, HEADER_SIZE);
+        if (getInt(head, 0) != MAGIC) {
+            throw new ZipException("Not in LZ4 block format");
+        }
+        if (head[4] != VERSION) {
+            throw new ZipException("Unsupported LZ4 block format version: " + head[4]);
+        }
+        int blockSize = getInt(head, 8);
+        if (blockSize < 64 || blockSize > MAX_BLOCK_SIZE) {
+            throw new ZipException("invalid LZ4 block size: " + blockSize);
+        }
+        crc = ((head[5] & FLAG_CHECKSUM) != 0) ? new CRC32() : null;
+        block = new byte[blockSize];
+    }
+
+    /**
+     * Reads a byte of uncompressed data.
+     * @return the byte read, or -1 if the end of the compressed data is
+     *         reached
+     * @exception ZipException if the compressed data is corrupt
+     * @exception IOException if an I/O error has occurred
+     */
+    public int read() throws IOException {
+        ensureOpen();
+        if (pos == count && !fill()) {
+            return -1;
+        }
+        return block[pos++] & 0xff;
+    }
+
+    /**
+     * Reads uncompressed data into an array of bytes.  If <code>len</code>
+     * is not zero, the method blocks until some input can be decompressed;
+     * otherwise, no bytes are read and <code>0</code> is returned.
+     * @param b the buffer into which the data is read
+     * @param off the start offset in the destination array <code>b</code>
+     * @param len the maximum number of bytes read
+     * @return the actual number of bytes read, or -1 if the end of the
+     *         compressed data is reached
+     * @exception IndexOutOfBoundsException if an offset or length is out
+     *            of the bounds of <code>b</code>
+     * @exception ZipException if the compressed data is corrupt
+     * @exception IOException if an I/O error has occurred
+     */
+    public int read(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+        if (pos == count && !fill()) {
+            return -1;
+        }
+        int n = Math.min(len, count - pos);
+        System.arraycopy(block, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    /**
+     * Returns the number of uncompressed bytes that can be read without
+     * reading another block.
+     * @return the number of bytes buffered in the current block
+     * @exception IOException if this stream is closed
+     */
+    public int available() throws IOException {
+        ensureOpen();
+        return count - pos;
+    }
+
+    /**
+     * Skips over and discards uncompressed data.
+     * @param n the number of bytes to skip
+     * @return the actual number of bytes skipped
+     * @exception IOException if an I/O error has occurred
+     */
+    public long skip(long n) throws IOException {
+        ensureOpen();
+        long skipped = 0;
+        while (skipped < n) {
+            if (pos == count && !fill()) {
+                break;
+            }
+            int k = (int)Math.min(n - skipped, count - pos);
+            pos += k;
+            skipped += k;
+        }
+        return skipped;
+    }
+
+    /**
+     * Closes this input stream and the underlying stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            in.close();
+        }
+    }
+
+    /**
+     * Returns false; this stream does not support mark and reset.
+     * @return false
+     */
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /*
+     * Reads and decompresses the next block.  Returns false at the end of
+     * the compressed data, after skipping the index and trailer.
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        readFully(head, 0, 4);
+        int len = getInt(head, 0);
+        if (len == 0) {
+            readFully(head, 0, 4);
+            int n = getInt(head, 0);
+            if (n < 0) {
+                throw new ZipException("invalid LZ4 block index");
+            }
+            skipFully(n * 16L + TRAILER_SIZE);
+            eof = true;
+            return false;
+        }
+        readFully(head, 0, (crc != null) ? 8 : 4);
+        int stored = getInt(head, 0);
+        int clen = stored & ~STORED;
+        if (len < 0 || len > block.length || clen > block.length ||
+            ((stored & STORED) != 0 && clen != len)) {
+            throw new ZipException("invalid LZ4 block header");
+        }
+        if ((stored & STORED) != 0) {
+            readFully(block, 0, len);
+        } else {
+            if (compressed.length < clen) {
+                compressed = new byte[LZ4Compressor.maxCompressedLength(block.length)];
+            }
+            readFully(compressed, 0, clen);
+            try {
+                if (decompressor.decompress(compressed, 0, clen,
+                                            block, 0, len) != len) {
+                    throw new ZipException("invalid LZ4 block length");
+                }
+            } catch (DataFormatException e) {
+                String s = e.getMessage();
+                throw new ZipException(s != null ? s : "Invalid LZ4 block");
+            }
+        }
+        if (crc != null) {
+            crc.reset();
+            crc.update(block, 0, len);
+            if ((int)crc.getValue() != getInt(head, 4)) {
+                throw new ZipException("Corrupt LZ4 block: CRC mismatch");
+            }
+        }
+        pos = 0;
+        count = len;
+        return true;
+    }
+
+    private void readFully(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int n = in.read(b, off, len);
+            if (n == -1) {
+                throw new EOFException("Unexpected end of LZ4 block stream");
+            }
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void skipFully(long n) throws IOException {
+        while (n > 0) {
+            long k = in.skip(n);
+            if (k <= 0) {
+                if (in.read() == -1) {
+                    throw new EOFException("Unexpected end of LZ4 block stream");
+                }
+                k = 1;
+            }
+            n -= k;
+        }
+    }
+}
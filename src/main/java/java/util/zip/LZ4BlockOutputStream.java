@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * This class implements a stream filter for writing compressed data in
+ * the LZ4 block stream format, a fast alternative to
+ * {@link DeflaterOutputStream} for data that is compressed and read back
+ * by Java code, such as spill files and caches.  Data is compressed in
+ * independent blocks with {@link LZ4Compressor}, and can be read back
+ * sequentially with {@link LZ4BlockInputStream} or at arbitrary offsets
+ * with {@link LZ4BlockReader}.
+ *
+ * <p>The stream starts with a 12 byte header: the magic number
+ * {@code "LZ4B"}, a version byte, a flags byte whose lowest bit indicates
+ * that blocks carry a CRC-32 checksum, two reserved bytes and the block
+ * size.  Each block is then written as its uncompressed length, its stored
+ * length, the CRC-32 of its uncompressed data if checksums are enabled, and
+ * the stored data.  The highest bit of the stored length is set if the
+ * block did not compress and is stored as is.  The blocks are followed by
+ * an uncompressed length of zero and an index giving the uncompressed and
+ * stream offset of every block, and the stream ends with a 20 byte
+ * trailer: the total uncompressed length, the stream offset of the index
+ * and the magic number {@code "LZ4I"}.  All integers are big-endian.
+ *
+ * <p>{@link #flush()} ends the current block early, so that all data
+ * written so far can be read back; frequent flushing therefore reduces
+ * the compression ratio.
+ *
+ * @see LZ4BlockInputStream
+ * @see LZ4BlockReader
+ * @since 9
+ */
+public class LZ4BlockOutputStream extends FilterOutputStream {
+
+    static final int MAGIC = 0x4c5a3442;            // "LZ4B"
+    static final int INDEX_MAGIC = 0x4c5a3449;      // "LZ4I"
+    static final int VERSION = 1;
+    static final int FLAG_CHECKSUM = 1;
+    static final int HEADER_SIZE = 12;
+    static final int TRAILER_SIZE = 20;
+    static final int STORED = 0x80000000;
+    static final int MAX_BLOCK_SIZE = 1 << 25;
+
+    /**
+     * The default block size, 64 KB.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private final LZ4Compressor compressor = new LZ4Compressor();
+    private final CRC32 crc;
+    private final byte[] block;
+    private final byte[] compressed;
+    private final byte[] head = new byte[HEADER_SIZE];
+    private int blockLen;
+
+    // uncompressed and stream offset of every block written
+    private long[] rawOffsets = new long[16];
+    private long[] streamOffsets = new long[16];
+    private int blockCount;
+
+    private long rawLength;
+    private long written;
+    private boolean finished;
+    private boolean closed;
+
+    /**
+     * Creates a new output stream with the default block size and
+     * checksums enabled.
+     * @param out the output stream
+     */
+    public LZ4BlockOutputStream(OutputStream out) {
+        this(out, DEFAULT_BLOCK_SIZE, true);
+    }
+
+    /**
+     * Creates a new output stream with the specified block size and
+     * checksums enabled.
+     * @param out the output stream
+     * @param blockSize the size of the blocks compressed independently
+     * @exception IllegalArgumentException if {@code blockSize} is not
+     *            between 64 bytes and 32 MB
+     */
+    public LZ4BlockOutputStream(OutputStream out, int blockSize) {
+        this(out, blockSize, true);
+    }
+
+    /**
+     * Creates a new output stream with the specified block size.
+     * @param out the output stream
+     * @param blockSize the size of the blocks compressed independently
+     * @param checksum if true, a CRC-32 checksum of every block is written
+     *        and verified when the block is read
+     * @exception IllegalArgumentException if {@code blockSize} is not
+     *            between 64 bytes and 32 MB
+     */
+    public LZ4BlockOutputStream(OutputStream out, int blockSize,
+                                boolean checksum) {
+        super(out);
+        if (out == null) {
+            throw new NullPointerException();
+        }
+        if (blockSize < 64 || blockSize > MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("invalid block size: " + blockSize);
+        }
+        this.block = new byte[blockSize];
+        this.compressed = new byte[LZ4Compressor.maxCompressedLength(blockSize)];
+        this.crc = checksum ? new CRC32() : null;
+    }
+
+    /**
+     * Writes a byte to the compressed output stream.
+     * @param b the byte to be written
+     * @exception IOException if an I/O error has occurred
+     */
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (blockLen == block.length) {
+            writeBlock();
+        }
+        block[blockLen++] = (byte)b;
+    }
+
+    /**
+     * Writes an array of bytes to the compressed output stream.
+     * @param b the data to be written
+     * @param off the start offset of the data
+     * @param len the length of the data
+     * @exception IOException if an I/O error has occurred
+     */
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            if (blockLen == block.length) {
+                writeBlock();
+            }
+            int n = Math.min(len, block.length - blockLen);
+            System.arraycopy(b, off, block, blockLen, n);
+            blockLen += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Writes the buffered data, if any, as a block and flushes the
+     * underlying stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void flush() throws IOException {
+        ensureOpen();
+        if (blockLen > 0) {
+            writeBlock();
+        }
+        out.flush();
+    }
+
+    /**
+     * Finishes writing compressed data, the index and the trailer to the
+     * output stream without closing the underlying stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        ensureOpen();
+        if (blockLen > 0) {
+            writeBlock();
+        }
+        writeHeader();
+        byte[] b = new byte[8 + blockCount * 16 + TRAILER_SIZE];
+        putInt(b, 0, 0);
+        putInt(b, 4, blockCount);
+        long indexPos = written + 4;
+        int p = 8;
+        for (int i = 0; i < blockCount; i++) {
+            putLong(b, p, rawOffsets[i]);
+            putLong(b, p + 8, streamOffsets[i]);
+            p += 16;
+        }
+        putLong(b, p, rawLength);
+        putLong(b, p + 8, indexPos);
+        putInt(b, p + 16, INDEX_MAGIC);
+        out.write(b);
+        written += b.length;
+        finished = true;
+    }
+
+    /**
+     * Writes remaining compressed data to the output stream and closes the
+     * underlying stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                closed = true;
+                out.close();
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (finished) {
+            throw new IOException("write beyond end of stream");
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        if (written == 0) {
+            putInt(head, 0, MAGIC);
+            head[4] = VERSION;
+            head[5] = (byte)(crc != null ? FLAG_CHECKSUM : 0);
+            head[6] = 0;
+            head[7] = 0;
+            putInt(head, 8, block.length);
+            out.write(head, 0, HEADER_SIZE);
+            written = HEADER_SIZE;
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        writeHeader();
+        int len = blockLen;
+        int clen = compressor.compress(block, 0, len, compressed, 0,
+                                       compressed.length);
+        int hlen = (crc != null) ? 12 : 8;
+        putInt(head, 0, len);
+        if (clen < len) {
+            putInt(head, 4, clen);
+        } else {
+            clen = len;
+            putInt(head, 4, clen | STORED);
+        }
+        if (crc != null) {
+            crc.reset();
+            crc.update(block, 0, len);
+            putInt(head, 8, (int)crc.getValue());
+        }
+        if (blockCount == rawOffsets.length) {
+            rawOffsets = Arrays.copyOf(rawOffsets, blockCount * 2);
+            streamOffsets = Arrays.copyOf(streamOffsets, blockCount * 2);
+        }
+        rawOffsets[blockCount] = rawLength;
+        streamOffsets[blockCount] = written;
+        blockCount++;
+        out.write(head, 0, hlen);
+        out.write(clen < len ? compressed : block, 0, clen);
+        written += hlen + clen;
+        rawLength += len;
+        blockLen = 0;
+    }
+
+    static void putInt(byte[] b, int off, int v) {
+        b[off]     = (byte)(v >>> 24);
+        b[off + 1] = (byte)(v >>> 16);
+        b[off + 2] = (byte)(v >>> 8);
+        b[off + 3] = (byte)v;
+    }
+
+    static void putLong(byte[] b, int off, long v) {
+        putInt(b, off, (int)(v >>> 32));
+        putInt(b, off + 4, (int)v);
+    }
+
+    static int getInt(byte[] b, int off) {
+        return (b[off] & 0xff) << 24 | (b[off + 1] & 0xff) << 16 |
+               (b[off + 2] & 0xff) << 8 | (b[off + 3] & 0xff);
+    }
+
+    static long getLong(byte[] b, int off) {
+        return (long)getInt(b, off) << 32 | (getInt(b, off + 4) & 0xffffffffL);
+    }
+}
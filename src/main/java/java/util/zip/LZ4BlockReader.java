@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+
+import static java.util.zip.LZ4BlockOutputStream.*;
+
+/**
+ * This class reads data at arbitrary offsets from data written by
+ * {@link LZ4BlockOutputStream}, using the block index at the end of the
+ * compressed data: only the block holding the requested offset is read
+ * and decompressed.  The most recently decompressed block is kept, so
+ * that small sequential reads decompress each block once.
+ *
+ * <p>The channel must hold exactly one complete compressed stream, such as
+ * a file the stream was written to.  A reader may be used by several
+ * threads at once; reads are serialized.
+ *
+ * @see LZ4BlockOutputStream
+ * @since 9
+ */
+public final class LZ4BlockReader implements Closeable {
+
+    private final SeekableByteChannel ch;
+    private final LZ4Decompressor decompressor = new LZ4Decompressor();
+    private final CRC32 crc;
+    private final long length;
+    private final long[] rawOffsets;
+    private final long[] streamOffsets;
+    private final byte[] block;
+    private final byte[] head = new byte[12];
+    private byte[] compressed = new byte[0];
+    private int current = -1;       // index of the block held in block
+    private int currentLen;
+
+    /**
+     * Opens a reader on the compressed data in the given channel, and
+     * reads its header and block index.
+     * @param ch the channel, positioned anywhere
+     * @exception ZipException if the data is not valid compressed data
+     * @exception IOException if an I/O error has occurred
+     */
+    public LZ4BlockReader(SeekableByteChannel ch) throws IOException {
+        this.ch = ch;
+        long size = ch.size();
+        if (size < HEADER_SIZE + 8 + TRAILER_SIZE) {
+            throw new ZipException("Not in LZ4 block format");
+        }
+        byte[] b = new byte[HEADER_SIZE];
+        readFully(0, b, HEADER_SIZE);
+        if (getInt(b, 0) != MAGIC || b[4] != VERSION) {
+            throw new ZipException("Not in LZ4 block format");
+        }
+        int blockSize = getInt(b, 8);
+        if (blockSize < 64 || blockSize > MAX_BLOCK_SIZE) {
+            throw new ZipException("invalid LZ4 block size: " + blockSize);
+        }
+        crc = ((b[5] & FLAG_CHECKSUM) != 0) ? new CRC32() : null;
+
+        b = new byte[TRAILER_SIZE];
+        readFully(size - TRAILER_SIZE, b, TRAILER_SIZE);
+        long indexPos = getLong(b, 8);
+        if (getInt(b, 16) != INDEX_MAGIC || indexPos < HEADER_SIZE ||
+            indexPos > size - TRAILER_SIZE - 4) {
+            throw new ZipException("invalid LZ4 block index");
+        }
+        length = getLong(b, 0);
+        byte[] n = new byte[4];
+        readFully(indexPos, n, 4);
+        int count = getInt(n, 0);
+        // data must start with a block at offset 0, and there are blocks
+        // if, and only if, there is data
+        if (count < 0 || count * 16L != size - TRAILER_SIZE - indexPos - 4 ||
+            length < 0 || (length > 0) != (count > 0)) {
+            throw new ZipException("invalid LZ4 block index");
+        }
+        b = new byte[count * 16];
+        readFully(indexPos + 4, b, b.length);
+        rawOffsets = new long[count];
+        streamOffsets = new long[count];
+        for (int i = 0; i < count; i++) {
+            rawOffsets[i] = getLong(b, i * 16);
+            streamOffsets[i] = getLong(b, i * 16 + 8);
+            if ((i == 0 ? rawOffsets[i] != 0
+                        : rawOffsets[i] < rawOffsets[i - 1] + 1) ||
+                rawOffsets[i] > length ||
+                streamOffsets[i] < HEADER_SIZE || streamOffsets[i] >= indexPos) {
+                throw new ZipException("invalid LZ4 block index");
+            }
+        }
+        block = new byte[blockSize];
+    }
+
+    /**
+     * Returns the total length of the uncompressed data.
+     * @return the uncompressed length
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Returns the number of blocks of the compressed data.
+     * @return the number of blocks
+     */
+    public int blockCount() {
+        return rawOffsets.length;
+    }
+
+    /**
+     * Reads uncompressed data starting at the given offset.  Fewer than
+     * <code>len</code> bytes are read only if the end of the data is
+     * reached.
+     * @param pos the offset in the uncompressed data
+     * @param b the buffer into which the data is read
+     * @param off the start offset in the destination array <code>b</code>
+     * @param len the maximum number of bytes read
+     * @return the actual number of bytes read, or -1 if <code>pos</code>
+     *         is at or beyond the end of the data and <code>len</code> is
+     *         not zero
+     * @exception IllegalArgumentException if <code>pos</code> is negative
+     * @exception IndexOutOfBoundsException if an offset or length is out
+     *            of the bounds of <code>b</code>
+     * @exception ZipException if the compressed data is corrupt
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized int read(long pos, byte[] b, int off, int len)
+        throws IOException
+    {
+        if (pos < 0) {
+            throw new IllegalArgumentException("negative position");
+        }
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+        if (pos >= length) {
+            return -1;
+        }
+        int total = 0;
+        while (len > 0 && pos < length) {
+            int i = blockFor(pos);
+            load(i);
+            int boff = (int)(pos - rawOffsets[i]);
+            int n = Math.min(len, currentLen - boff);
+            System.arraycopy(block, boff, b, off, n);
+            pos += n;
+            off += n;
+            len -= n;
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Closes this reader and the underlying channel.
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void close() throws IOException {
+        ch.close();
+    }
+
+    // the last block whose uncompressed offset is at most pos
+    private int blockFor(long pos) {
+        int lo = 0;
+        int hi = rawOffsets.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (rawOffsets[mid] <= pos) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    private void load(int i) throws IOException {
+        if (i == current) {
+            return;
+        }
+        current = -1;
+        long end = (i + 1 < rawOffsets.length) ? rawOffsets[i + 1] : length;
+        int hlen = (crc != null) ? 12 : 8;
+        readFully(streamOffsets[i], head, hlen);
+        int len = getInt(head, 0);
+        int stored = getInt(head, 4);
+        int clen = stored & ~STORED;
+        if (len != end - rawOffsets[i] || len <= 0 || len > block.length ||
+            clen > block.length ||
+            ((stored & STORED) != 0 && clen != len)) {
+            throw new ZipException("invalid LZ4 block header");
+        }
+        long dataPos = streamOffsets[i] + hlen;
+        if ((stored & STORED) != 0) {
+            readFully(dataPos, block, len);
+        } else {
+            if (compressed.length < clen) {
+                compressed = new byte[LZ4Compressor.maxCompressedLength(block.length)];
+            }
+            readFully(dataPos, compressed, clen);
+            try {
+                if (decompressor.decompress(compressed, 0, clen,
+                                            block, 0, len) != len) {
+                    throw new ZipException("invalid LZ4 block length");
+                }
+            } catch (DataFormatException e) {
+                String s = e.getMessage();
+                throw new ZipException(s != null ? s : "Invalid LZ4 block");
+            }
+        }
+        if (crc != null) {
+            crc.reset();
+            crc.update(block, 0, len);
+            if ((int)crc.getValue() != getInt(head, 8)) {
+                throw new ZipException("Corrupt LZ4 block: CRC mismatch");
+            }
+        }
+        current = i;
+        currentLen = len;
+    }
+
+    private void readFully(long pos, byte[] b, int len) throws IOException {
+        ByteBuffer bb = ByteBuffer.wrap(b, 0, len);
+        ch.position(pos);
+        while (bb.hasRemaining()) {
+            if (ch.read(bb) < 0) {
+                throw new EOFException("Unexpected end of LZ4 block data");
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+
+/**
+ * This class compresses blocks of data in the LZ4 block format, a byte
+ * oriented LZ77 format that trades compression ratio for speed: data is
+ * compressed and decompressed several times faster than with
+ * {@link Deflater} at its fastest level, at the cost of larger output.
+ * Each block is compressed independently of any other, and is
+ * decompressed with {@link LZ4Decompressor}.
+ *
+ * <p>The compressor finds matches with a single-entry hash table of
+ * 4-byte sequences and does not search further; it corresponds to the
+ * default ("fast") mode of the reference LZ4 implementation, and its
+ * output can be decompressed by any LZ4 block decompressor.
+ *
+ * <p>A compressor keeps its hash table between invocations to avoid
+ * reallocating it, and therefore must not be used by more than one thread
+ * at a time.
+ *
+ * @see LZ4Decompressor
+ * @see LZ4BlockOutputStream
+ * @since 9
+ */
+public final class LZ4Compressor {
+
+    static final int MIN_MATCH = 4;
+    static final int MAX_DISTANCE = 65535;
+    // the last 5 bytes of a block are always literals
+    static final int LAST_LITERALS = 5;
+    // a match must start at least 12 bytes before the end of a block
+    static final int MF_LIMIT = 12;
+    static final int ML_BITS = 4;
+    static final int ML_MASK = (1 << ML_BITS) - 1;
+    static final int RUN_MASK = (1 << (8 - ML_BITS)) - 1;
+
+    private static final int HASH_LOG = 12;
+    // the search step grows after every 2^SKIP_STRENGTH misses
+    private static final int SKIP_STRENGTH = 6;
+
+    private final int[] table = new int[1 << HASH_LOG];
+
+    /**
+     * Creates a new compressor.
+     */
+    public LZ4Compressor() {
+    }
+
+    /**
+     * Returns the maximum length of the compressed form of a block of the
+     * given length.  A destination of this length is always large enough.
+     *
+     * @param len the length of the uncompressed data
+     * @return the maximum length of the compressed data
+     * @throws IllegalArgumentException if {@code len} is negative or too
+     *         large for the result to be an {@code int}
+     */
+    public static int maxCompressedLength(int len) {
+        if (len < 0 || len > 0x7E000000) {
+            throw new IllegalArgumentException("invalid length: " + len);
+        }
+        return len + len / 255 + 16;
+    }
+
+    /**
+     * Compresses a block of data.
+     *
+     * @param src the data to compress
+     * @param srcOff the start offset of the data
+     * @param srcLen the length of the data
+     * @param dst the buffer for the compressed data
+     * @param dstOff the start offset in {@code dst}
+     * @param maxDstLen the maximum number of bytes to write to {@code dst}
+     * @return the length of the compressed data
+     * @throws ArrayIndexOutOfBoundsException if an offset or length is
+     *         out of the bounds of its array
+     * @throws IllegalArgumentException if the compressed data does not fit
+     *         in {@code maxDstLen} bytes; a length of
+     *         {@link #maxCompressedLength maxCompressedLength(srcLen)} is
+     *         always enough
+     */
+    public int compress(byte[] src, int srcOff, int srcLen,
+                        byte[] dst, int dstOff, int maxDstLen) {
+        if (srcOff < 0 || srcLen < 0 || srcOff > src.length - srcLen ||
+            dstOff < 0 || maxDstLen < 0 || dstOff > dst.length - maxDstLen) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        final int[] table = this.table;
+        final int end = srcOff + srcLen;
+        final int dEnd = dstOff + maxDstLen;
+        int ip = srcOff;
+        int anchor = srcOff;
+        int dp = dstOff;
+
+        if (srcLen > MF_LIMIT) {
+            Arrays.fill(table, -1);
+            final int mflimit = end - MF_LIMIT;
+            final int matchLimit = end - LAST_LITERALS;
+            table[hash(readInt(src, ip))] = ip;
+            ip++;
+            outer:
+            for (;;) {
+                // find a match, taking bigger steps the longer none is found
+                int ref;
+                int attempts = 1 << SKIP_STRENGTH;
+                int step = 1;
+                for (;;) {
+                    if (ip > mflimit) {
+                        break outer;
+                    }
+                    int seq = readInt(src, ip);
+                    int h = hash(seq);
+                    ref = table[h];
+                    table[h] = ip;
+                    if (ref >= 0 && ip - ref <= MAX_DISTANCE &&
+                        readInt(src, ref) == seq) {
+                        break;
+                    }
+                    ip += step;
+                    step = attempts++ >>> SKIP_STRENGTH;
+                }
+
+                // extend the match backwards over the pending literals
+                while (ip > anchor && ref > srcOff &&
+                       src[ip - 1] == src[ref - 1]) {
+                    ip--;
+                    ref--;
+                }
+
+                // literals
+                int litLen = ip - anchor;
+                if (dp + litLen + litLen / 255 + 4 > dEnd) {
+                    throw new IllegalArgumentException("destination too small");
+                }
+                int token = dp++;
+                if (litLen >= RUN_MASK) {
+                    dst[token] = (byte)(RUN_MASK << ML_BITS);
+                    dp = writeLength(litLen - RUN_MASK, dst, dp);
+                } else {
+                    dst[token] = (byte)(litLen << ML_BITS);
+                }
+                System.arraycopy(src, anchor, dst, dp, litLen);
+                dp += litLen;
+
+                // match offset, little-endian
+                int offset = ip - ref;
+                dst[dp++] = (byte)offset;
+                dst[dp++] = (byte)(offset >>> 8);
+
+                // match length beyond the minimum
+                int ml = 0;
+                int limit = matchLimit - ip - MIN_MATCH;
+                int s = ip + MIN_MATCH;
+                int r = ref + MIN_MATCH;
+                while (ml < limit && src[s + ml] == src[r + ml]) {
+                    ml++;
+                }
+                ip += MIN_MATCH + ml;
+                if (ml >= ML_MASK) {
+                    if (dp + (ml - ML_MASK) / 255 + 1 > dEnd) {
+                        throw new IllegalArgumentException("destination too small");
+                    }
+                    dst[token] |= ML_MASK;
+                    dp = writeLength(ml - ML_MASK, dst, dp);
+                } else {
+                    dst[token] |= (byte)ml;
+                }
+                anchor = ip;
+                if (ip > mflimit) {
+                    break;
+                }
+                // the position two bytes back is likely to start a match
+                table[hash(readInt(src, ip - 2))] = ip - 2;
+            }
+        }
+
+        // last literals
+        int litLen = end - anchor;
+        if (dp + 1 + litLen + litLen / 255 + 1 > dEnd) {
+            throw new IllegalArgumentException("destination too small");
+        }
+        if (litLen >= RUN_MASK) {
+            dst[dp++] = (byte)(RUN_MASK << ML_BITS);
+            dp = writeLength(litLen - RUN_MASK, dst, dp);
+        } else {
+            dst[dp++] = (byte)(litLen << ML_BITS);
+        }
+        System.arraycopy(src, anchor, dst, dp, litLen);
+        dp += litLen;
+        return dp - dstOff;
+    }
+
+    /**
+     * Compresses the remaining bytes of {@code src} into {@code dst} as a
+     * single block.  Upon return the position of {@code src} is its limit
+     * and the position of {@code dst} is advanced by the length of the
+     * compressed data.  Buffers that are not backed by an accessible array
+     * are copied.
+     *
+     * @param src the data to compress
+     * @param dst the buffer for the compressed data
+     * @return the length of the compressed data
+     * @throws IllegalArgumentException if the compressed data does not fit
+     *         in the remaining space of {@code dst}
+     * @throws ReadOnlyBufferException if {@code dst} is read-only
+     */
+    public int compress(ByteBuffer src, ByteBuffer dst) {
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        int srcLen = src.remaining();
+        byte[] s;
+        int sOff;
+        if (src.hasArray()) {
+            s = src.array();
+            sOff = src.arrayOffset() + src.position();
+        } else {
+            s = new byte[srcLen];
+            sOff = 0;
+            src.duplicate().get(s);
+        }
+        int n;
+        if (dst.hasArray()) {
+            n = compress(s, sOff, srcLen, dst.array(),
+                         dst.arrayOffset() + dst.position(), dst.remaining());
+            dst.position(dst.position() + n);
+        } else {
+            byte[] d = new byte[Math.min(dst.remaining(),
+                                         maxCompressedLength(srcLen))];
+            n = compress(s, sOff, srcLen, d, 0, d.length);
+            dst.put(d, 0, n);
+        }
+        src.position(src.limit());
+        return n;
+    }
+
+    static int readInt(byte[] b, int i) {
+        return (b[i] & 0xff) | (b[i + 1] & 0xff) << 8 |
+               (b[i + 2] & 0xff) << 16 | (b[i + 3] & 0xff) << 24;
+    }
+
+    private static int hash(int seq) {
+        return (seq * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static int writeLength(int len, byte[] dst, int dp) {
+        while (len >= 255) {
+            dst[dp++] = (byte)255;
+            len -= 255;
+        }
+        dst[dp++] = (byte)len;
+        return dp;
+    }
+}
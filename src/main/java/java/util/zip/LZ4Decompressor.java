@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
+import static java.util.zip.LZ4Compressor.*;
+
+/**
+ * This class decompresses blocks of data in the LZ4 block format, as
+ * produced by {@link LZ4Compressor}.  The input is validated as it is
+ * decoded: malformed or truncated input, and output that does not fit in
+ * the destination, are reported with an exception and never cause reads
+ * or writes outside the given bounds.
+ *
+ * <p>A decompressor holds no state and may be used by several threads
+ * at once.
+ *
+ * @see LZ4Compressor
+ * @see LZ4BlockInputStream
+ * @since 9
+ */
+public final class LZ4Decompressor {
+
+    /**
+     * Creates a new decompressor.
+     */
+    public LZ4Decompressor() {
+    }
+
+    /**
+     * Decompresses a block of data.  The input must hold exactly one
+     * compressed block.
+     *
+     * @param src the compressed data
+     * @param srcOff the start offset of the compressed data
+     * @param srcLen the length of the compressed data
+     * @param dst the buffer for the decompressed data
+     * @param dstOff the start offset in {@code dst}
+     * @param maxDstLen the maximum number of bytes to write to {@code dst}
+     * @return the length of the decompressed data
+     * @throws ArrayIndexOutOfBoundsException if an offset or length is
+     *         out of the bounds of its array
+     * @throws DataFormatException if the compressed data is malformed or
+     *         does not decompress to at most {@code maxDstLen} bytes
+     */
+    public int decompress(byte[] src, int srcOff, int srcLen,
+                          byte[] dst, int dstOff, int maxDstLen)
+        throws DataFormatException
+    {
+        if (srcOff < 0 || srcLen < 0 || srcOff > src.length - srcLen ||
+            dstOff < 0 || maxDstLen < 0 || dstOff > dst.length - maxDstLen) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        final int sEnd = srcOff + srcLen;
+        final int dEnd = dstOff + maxDstLen;
+        int sp = srcOff;
+        int dp = dstOff;
+        if (srcLen == 0) {
+            throw new DataFormatException("empty LZ4 block");
+        }
+        for (;;) {
+            int token = src[sp++] & 0xff;
+
+            // literals
+            int litLen = token >>> ML_BITS;
+            if (litLen == RUN_MASK) {
+                int b;
+                do {
+                    if (sp >= sEnd) {
+                        throw malformed(sp, srcOff);
+                    }
+                    b = src[sp++] & 0xff;
+                    litLen += b;
+                } while (b == 255 && litLen > 0);
+                if (litLen < 0) {
+                    throw malformed(sp, srcOff);
+                }
+            }
+            if (litLen > sEnd - sp) {
+                throw malformed(sp, srcOff);
+            }
+            if (litLen > dEnd - dp) {
+                throw new DataFormatException("LZ4 block too large for destination");
+            }
+            System.arraycopy(src, sp, dst, dp, litLen);
+            sp += litLen;
+            dp += litLen;
+            if (sp == sEnd) {
+                // the last sequence has no match
+                return dp - dstOff;
+            }
+
+            // match
+            if (sEnd - sp < 2) {
+                throw malformed(sp, srcOff);
+            }
+            int offset = (src[sp] & 0xff) | (src[sp + 1] & 0xff) << 8;
+            sp += 2;
+            if (offset == 0 || offset > dp - dstOff) {
+                throw malformed(sp, srcOff);
+            }
+            int ml = token & ML_MASK;
+            if (ml == ML_MASK) {
+                int b;
+                do {
+                    if (sp >= sEnd) {
+                        throw malformed(sp, srcOff);
+                    }
+                    b = src[sp++] & 0xff;
+                    ml += b;
+                } while (b == 255 && ml > 0);
+                if (ml < 0) {
+                    throw malformed(sp, srcOff);
+                }
+            }
+            ml += MIN_MATCH;
+            if (ml > dEnd - dp || ml < 0) {
+                throw new DataFormatException("LZ4 block too large for destination");
+            }
+            int ref = dp - offset;
+            if (offset >= ml) {
+                System.arraycopy(dst, ref, dst, dp, ml);
+                dp += ml;
+            } else {
+                // the match overlaps the bytes it produces
+                for (int end = dp + ml; dp < end; ) {
+                    dst[dp++] = dst[ref++];
+                }
+            }
+            if (sp >= sEnd) {
+                // a block ends with literals, possibly none
+                throw malformed(sp, srcOff);
+            }
+        }
+    }
+
+    /**
+     * Decompresses the remaining bytes of {@code src}, which must hold
+     * exactly one compressed block, into {@code dst}.  Upon return the
+     * position of {@code src} is its limit and the position of {@code dst}
+     * is advanced by the length of the decompressed data.  Buffers that
+     * are not backed by an accessible array are copied.
+     *
+     * @param src the compressed data
+     * @param dst the buffer for the decompressed data
+     * @return the length of the decompressed data
+     * @throws DataFormatException if the compressed data is malformed or
+     *         does not fit in the remaining space of {@code dst}
+     * @throws ReadOnlyBufferException if {@code dst} is read-only
+     */
+    public int decompress(ByteBuffer src, ByteBuffer dst)
+        throws DataFormatException
+    {
+        if (dst.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        int srcLen = src.remaining();
+        byte[] s;
+        int sOff;
+        if (src.hasArray()) {
+            s = src.array();
+            sOff = src.arrayOffset() + src.position();
+        } else {
+            s = new byte[srcLen];
+            sOff = 0;
+            src.duplicate().get(s);
+        }
+        int n;
+        if (dst.hasArray()) {
+            n = decompress(s, sOff, srcLen, dst.array(),
+                           dst.arrayOffset() + dst.position(), dst.remaining());
+            dst.position(dst.position() + n);
+        } else {
+            byte[] d = new byte[dst.remaining()];
+            n = decompress(s, sOff, srcLen, d, 0, d.length);
+            dst.put(d, 0, n);
+        }
+        src.position(src.limit());
+        return n;
+    }
+
+    private static DataFormatException malformed(int sp, int srcOff) {
+        return new DataFormatException(
+            "malformed LZ4 block at offset " + (sp - srcOff));
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Produces a raw deflate stream by compressing fixed-size blocks of input
+ * on several threads.  Every block but the last is compressed by its own
+ * deflater, primed with the last 32K of the preceding block as a preset
+ * dictionary, and ended with a {@link Deflater#SYNC_FLUSH SYNC_FLUSH} so
+ * that it ends on a byte boundary without ending the stream.  The last
+ * block is finished normally.  The compressed blocks are written to the
+ * output stream in order, and their concatenation is a single standard
+ * deflate stream.
+ */
+final class ParallelDeflater {
+
+    // Size of the blocks of input compressed independently
+    static final int BLOCK_SIZE = 128 * 1024;
+
+    // Size of the preset dictionary, the deflate window size
+    private static final int DICT_SIZE = 32 * 1024;
+
+    private final OutputStream out;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+
+    // Deflaters not in use by a task
+    private final DeflaterPool deflaters;
+
+    // Compressed blocks not yet written, in order
+    private final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+
+    private byte[] block = new byte[BLOCK_SIZE];
+    private int blockLen;
+    private byte[] dict;            // end of the previous block, or null
+
+    private long bytesRead;
+    private long bytesWritten;
+
+    ParallelDeflater(OutputStream out, int level, int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("threads < 1");
+        this.out = out;
+        this.deflaters = new DeflaterPool(level, true, threads);
+        this.maxInFlight = threads * 2;
+        ThreadPoolExecutor tpe = new ThreadPoolExecutor(
+            threads, threads, 30L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(),
+            new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "ParallelDeflater");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        tpe.allowCoreThreadTimeOut(true);
+        this.executor = tpe;
+    }
+
+    void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int n = Math.min(len, BLOCK_SIZE - blockLen);
+            System.arraycopy(b, off, block, blockLen, n);
+            blockLen += n;
+            off += n;
+            len -= n;
+            bytesRead += n;
+            if (blockLen == BLOCK_SIZE)
+                submit(false);
+        }
+    }
+
+    /**
+     * Compresses the buffered input, if any, as a flushed block and writes
+     * all compressed blocks.
+     */
+    void flush() throws IOException {
+        if (blockLen > 0)
+            submit(false);
+        while (!pending.isEmpty())
+            writeNext();
+    }
+
+    /**
+     * Ends the deflate stream and writes all compressed blocks.
+     */
+    void finish() throws IOException {
+        submit(true);
+        while (!pending.isEmpty())
+            writeNext();
+    }
+
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Prepares for a new deflate stream.  Blocks not yet written are
+     * discarded.
+     */
+    void reset() {
+        for (Future<byte[]> f : pending)
+            f.cancel(false);
+        pending.clear();
+        blockLen = 0;
+        dict = null;
+        bytesRead = 0;
+        bytesWritten = 0;
+    }
+
+    /**
+     * Stops the compression threads and releases the deflaters.
+     */
+    void end() {
+        reset();
+        executor.shutdown();
+        deflaters.close();
+    }
+
+    private void submit(final boolean last) throws IOException {
+        final byte[] input = block;
+        final int len = blockLen;
+        final byte[] preset = dict;
+        if (!last) {
+            // the dictionary of the next block is the end of this one
+            int n = Math.min(len, DICT_SIZE);
+            byte[] d = new byte[n];
+            System.arraycopy(input, len - n, d, 0, n);
+            dict = d;
+        }
+        block = new byte[BLOCK_SIZE];
+        blockLen = 0;
+
+        if (pending.size() >= maxInFlight)
+            writeNext();
+        pending.add(executor.submit(new Callable<byte[]>() {
+            public byte[] call() {
+                return compress(input, len, preset, last);
+            }
+        }));
+    }
+
+    private byte[] compress(byte[] input, int len, byte[] preset, boolean last) {
+        Deflater d = deflaters.acquire();
+        try {
+            if (preset != null)
+                d.setDictionary(preset);
+            d.setInput(input, 0, len);
+            // room for the block plus headers, grown if incompressible
+            byte[] buf = new byte[len + (len >> 6) + 64];
+            int pos = 0;
+            int n;
+            if (last) {
+                d.finish();
+                while (!d.finished()) {
+                    if (pos == buf.length)
+                        buf = java.util.Arrays.copyOf(buf, buf.length * 2);
+                    pos += d.deflate(buf, pos, buf.length - pos);
+                }
+            } else {
+                int avail;
+                do {
+                    if (pos == buf.length)
+                        buf = java.util.Arrays.copyOf(buf, buf.length * 2);
+                    avail = buf.length - pos;
+                    n = d.deflate(buf, pos, avail, Deflater.SYNC_FLUSH);
+                    pos += n;
+                } while (n == avail);
+            }
+            return (pos == buf.length) ? buf : java.util.Arrays.copyOf(buf, pos);
+        } finally {
+            deflaters.release(d);
+        }
+    }
+
+    private void writeNext() throws IOException {
+        Future<byte[]> f = pending.poll();
+        byte[] b;
+        try {
+            b = f.get();
+        } catch (InterruptedException e) {
+            pending.addFirst(f);
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            if (cause instanceof Error)
+                throw (Error)cause;
+            throw new IOException(cause);
+        }
+        out.write(b);
+        bytesWritten += b.length;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * This class implements a stream filter for writing compressed data in
+ * the GZIP file format, compressing the data on several threads.
+ *
+ * <p> The data is divided into blocks of 128K bytes that are compressed
+ * concurrently.  Each block is compressed with the end of the preceding
+ * block as a preset dictionary, so that the compression ratio stays close
+ * to that of a single {@link Deflater}, and the compressed blocks are
+ * joined into one deflate stream.  The output is a standard GZIP member
+ * that can be read by {@link GZIPInputStream} or any other GZIP reader.
+ *
+ * <p> Invoking {@link #flush() flush} compresses the data written so far,
+ * waits for all blocks to be compressed, and flushes the compressor with
+ * flush mode {@link Deflater#SYNC_FLUSH} before flushing the output
+ * stream.  Frequent flushes therefore reduce both parallelism and the
+ * compression ratio.
+ *
+ * @see         GZIPOutputStream
+ * @since       9
+ */
+public
+class ParallelGZIPOutputStream extends FilterOutputStream {
+    /**
+     * CRC-32 of uncompressed data.
+     */
+    private final CRC32 crc = new CRC32();
+
+    private final ParallelDeflater def;
+
+    /*
+     * GZIP header magic number.
+     */
+    private final static int GZIP_MAGIC = 0x8b1f;
+
+    private boolean finished;
+    private boolean closed;
+
+    /**
+     * Creates a new output stream that compresses with the given number of
+     * threads at the default compression level.
+     *
+     * @param out the output stream
+     * @param threads the number of threads used to compress
+     * @exception IOException If an I/O error has occurred.
+     * @exception IllegalArgumentException if {@code threads < 1}
+     */
+    public ParallelGZIPOutputStream(OutputStream out, int threads)
+        throws IOException
+    {
+        this(out, threads, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates a new output stream that compresses with the given number of
+     * threads and compression level.
+     *
+     * @param out the output stream
+     * @param threads the number of threads used to compress
+     * @param level the compression level (0-9), or
+     *        {@link Deflater#DEFAULT_COMPRESSION}
+     * @exception IOException If an I/O error has occurred.
+     * @exception IllegalArgumentException if {@code threads < 1} or the
+     *            compression level is invalid
+     */
+    public ParallelGZIPOutputStream(OutputStream out, int threads, int level)
+        throws IOException
+    {
+        super(out);
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("invalid compression level");
+        }
+        def = new ParallelDeflater(out, level, threads);
+        writeHeader();
+    }
+
+    /**
+     * Writes a byte to the compressed output stream. This method will
+     * block until the byte can be written.
+     * @param b the byte to be written
+     * @exception IOException if an I/O error has occurred
+     */
+    public void write(int b) throws IOException {
+        byte[] buf = new byte[1];
+        buf[0] = (byte)(b & 0xff);
+        write(buf, 0, 1);
+    }
+
+    /**
+     * Writes array of bytes to the compressed output stream. This method
+     * will block until the bytes have been buffered, and until earlier
+     * blocks have been compressed and written if too many are pending.
+     * @param buf the data to be written
+     * @param off the start offset of the data
+     * @param len the length of the data
+     * @exception IOException If an I/O error has occurred.
+     */
+    public synchronized void write(byte[] buf, int off, int len)
+        throws IOException
+    {
+        if (finished) {
+            throw new IOException("write beyond end of stream");
+        }
+        if ((off | len | (off + len) | (buf.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return;
+        }
+        def.write(buf, off, len);
+        crc.update(buf, off, len);
+    }
+
+    /**
+     * Flushes the compressed output stream.  All data written so far is
+     * compressed and written to the output stream, which is then flushed.
+     *
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void flush() throws IOException {
+        if (!finished) {
+            def.flush();
+        }
+        out.flush();
+    }
+
+    /**
+     * Finishes writing compressed data to the output stream without closing
+     * the underlying stream. Use this method when applying multiple filters
+     * in succession to the same output stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public synchronized void finish() throws IOException {
+        if (!finished) {
+            def.finish();
+            byte[] trailer = new byte[8];
+            writeInt((int)crc.getValue(), trailer, 0);  // CRC-32 of uncompr. data
+            writeInt((int)def.getBytesRead(), trailer, 4); // Number of uncompr. bytes
+            out.write(trailer);
+            finished = true;
+        }
+    }
+
+    /**
+     * Writes remaining compressed data to the output stream, closes the
+     * underlying stream and stops the compression threads.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                closed = true;
+                def.end();
+                out.close();
+            }
+        }
+    }
+
+    /*
+     * Writes GZIP member header.
+     */
+    private void writeHeader() throws IOException {
+        out.write(new byte[] {
+                      (byte) GZIP_MAGIC,        // Magic number (short)
+                      (byte)(GZIP_MAGIC >> 8),  // Magic number (short)
+                      Deflater.DEFLATED,        // Compression method (CM)
+                      0,                        // Flags (FLG)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Extra flags (XFLG)
+                      0                         // Operating system (OS)
+                  });
+    }
+
+    /*
+     * Writes integer in Intel byte order to a byte array, starting at a
+     * given offset.
+     */
+    private void writeInt(int i, byte[] buf, int offset) {
+        buf[offset] = (byte)(i & 0xff);
+        buf[offset + 1] = (byte)((i >> 8) & 0xff);
+        buf[offset + 2] = (byte)((i >> 16) & 0xff);
+        buf[offset + 3] = (byte)((i >> 24) & 0xff);
+    }
+}
@@ -32,11 +32,14 @@ import java.io.EOFException;
 import java.io.File;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Spliterator;
@@ -62,6 +65,7 @@ class ZipFile implements ZipConstants, Closeable {
     private final String name;     // zip file name
     private final int total;       // total number of entries
     private final boolean locsig;  // if zip file starts with LOCSIG (usually true)
+    private final ZipSource source; // for reading entries concurrently, or null
     private volatile boolean closeRequested = false;
 
     private static final int STORED = ZipEntry.STORED;
@@ -92,6 +96,8 @@ class ZipFile implements ZipConstants, Closeable {
 
     private static final boolean ensuretrailingslash;
 
+    private static final boolean concurrentreads;
+
     static {
         // A system prpperty to disable mmap use to avoid vm crash when
         // in-use zip file is accidently overwritten by others.
@@ -102,6 +108,11 @@ class ZipFile implements ZipConstants, Closeable {
         // see getEntry() for details
         prop = sun.misc.VM.getSavedProperty("jdk.util.zip.ensureTrailingSlash");
         ensuretrailingslash = prop == null || !prop.equalsIgnoreCase("false");
+
+        // see openSource() for details
+        prop = sun.misc.VM.getSavedProperty("jdk.util.zip.concurrentReads");
+        concurrentreads = prop != null &&
+                          (prop.length() == 0 || prop.equalsIgnoreCase("true"));
     }
 
     /**
@@ -223,12 +234,40 @@ class ZipFile implements ZipConstants, Closeable {
             throw new NullPointerException("charset is null");
         this.zc = ZipCoder.get(charset);
         long t0 = System.nanoTime();
-        jzfile = open(name, mode, file.lastModified(), usemmap);
+        long lastModified = file.lastModified();
+        jzfile = open(name, mode, lastModified, usemmap);
         sun.misc.PerfCounter.getZipFileOpenTime().addElapsedTimeFrom(t0);
         sun.misc.PerfCounter.getZipFileCount().increment();
         this.name = name;
         this.total = getTotal(jzfile);
         this.locsig = startsWithLOC(jzfile);
+        this.source = openSource(file, mode, lastModified);
+    }
+
+    /*
+     * Opens the zip file for looking up entries and reading entry data by
+     * concurrent threads without the ZipFile lock.  The source holds a
+     * copy of the central directory in the Java heap, on top of the one
+     * the native zip library keeps, so it is only opened if the system
+     * property jdk.util.zip.concurrentReads is set to true.  Returns null,
+     * so that entries are read through the native zip library, if the
+     * property is not set, if the file is to be deleted, or if the file
+     * cannot be read or has changed since it was opened.
+     */
+    private ZipSource openSource(File file, int mode, long lastModified) {
+        if (!concurrentreads || (mode & OPEN_DELETE) != 0) {
+            return null;
+        }
+        try {
+            ZipSource src = ZipSource.open(file);
+            if (src.size() == total && file.lastModified() == lastModified) {
+                return src;
+            }
+            src.close();
+        } catch (IOException e) {
+            // fall back to the native zip library
+        }
+        return null;
     }
 
     /**
@@ -311,6 +350,23 @@ class ZipFile implements ZipConstants, Closeable {
         if (name == null) {
             throw new NullPointerException("name");
         }
+        if (source != null) {
+            ensureOpen();
+            byte[] bname = zc.getBytes(name);
+            int pos = source.getEntryPos(bname);
+            if (pos == -1 && (bname.length == 0 ||
+                              bname[bname.length - 1] != '/')) {
+                // as below, try again with a slash appended
+                bname = Arrays.copyOf(bname, bname.length + 1);
+                bname[bname.length - 1] = '/';
+                pos = source.getEntryPos(bname);
+            }
+            if (pos == -1) {
+                return null;
+            }
+            return ensuretrailingslash ? getSourceEntry(null, pos)
+                                       : getSourceEntry(name, pos);
+        }
         long jzentry = 0;
         synchronized (this) {
             ensureOpen();
@@ -361,41 +417,70 @@ class ZipFile implements ZipConstants, Closeable {
         if (entry == null) {
             throw new NullPointerException("entry");
         }
+        if (source != null) {
+            // no ZipFile lock: the source is immutable and each stream
+            // keeps its own position
+            ensureOpen();
+            int pos = source.getEntryPos(getNameBytes(entry));
+            if (pos == -1) {
+                return null;
+            }
+            ZipFileInputStream in =
+                new ZipFileInputStream(source.getDataOffset(pos),
+                                       source.getCSize(pos),
+                                       source.getSize(pos));
+            return newEntryStream(in, source.getMethod(pos), in.size());
+        }
         long jzentry = 0;
         ZipFileInputStream in = null;
         synchronized (this) {
             ensureOpen();
-            if (!zc.isUTF8() && (entry.flag & EFS) != 0) {
-                jzentry = getEntry(jzfile, zc.getBytesUTF8(entry.name), false);
-            } else {
-                jzentry = getEntry(jzfile, zc.getBytes(entry.name), false);
-            }
+            jzentry = getEntry(jzfile, getNameBytes(entry), false);
             if (jzentry == 0) {
                 return null;
             }
             in = new ZipFileInputStream(jzentry);
+            return newEntryStream(in, getEntryMethod(jzentry),
+                                  getEntrySize(jzentry));
+        }
+    }
 
-            switch (getEntryMethod(jzentry)) {
-            case STORED:
-                synchronized (streams) {
-                    streams.put(in, null);
-                }
-                return in;
-            case DEFLATED:
-                // MORE: Compute good size for inflater stream:
-                long size = getEntrySize(jzentry) + 2; // Inflater likes a bit of slack
-                if (size > 65536) size = 8192;
-                if (size <= 0) size = 4096;
-                Inflater inf = getInflater();
-                InputStream is =
-                    new ZipFileInflaterInputStream(in, inf, (int)size);
-                synchronized (streams) {
-                    streams.put(is, inf);
-                }
-                return is;
-            default:
-                throw new ZipException("invalid compression method");
+    private byte[] getNameBytes(ZipEntry entry) {
+        if (!zc.isUTF8() && (entry.flag & EFS) != 0) {
+            return zc.getBytesUTF8(entry.name);
+        } else {
+            return zc.getBytes(entry.name);
+        }
+    }
+
+    /*
+     * Returns the stream for reading the contents of an entry with the
+     * given compression method, reading its compressed data from in.
+     */
+    private InputStream newEntryStream(ZipFileInputStream in, int method,
+                                       long size)
+        throws ZipException
+    {
+        switch (method) {
+        case STORED:
+            synchronized (streams) {
+                streams.put(in, null);
+            }
+            return in;
+        case DEFLATED:
+            // MORE: Compute good size for inflater stream:
+            size += 2; // Inflater likes a bit of slack
+            if (size > 65536) size = 8192;
+            if (size <= 0) size = 4096;
+            Inflater inf = inflaterPool.acquire();
+            InputStream is =
+                new ZipFileInflaterInputStream(in, inf, (int)size);
+            synchronized (streams) {
+                streams.put(is, inf);
             }
+            return is;
+        default:
+            throw new ZipException("invalid compression method");
         }
     }
 
@@ -421,7 +506,7 @@ class ZipFile implements ZipConstants, Closeable {
                 inf = streams.remove(this);
             }
             if (inf != null) {
-                releaseInflater(inf);
+                inflaterPool.release(inf);
             }
         }
 
@@ -454,36 +539,10 @@ class ZipFile implements ZipConstants, Closeable {
         }
     }
 
-    /*
-     * Gets an inflater from the list of available inflaters or allocates
-     * a new one.
-     */
-    private Inflater getInflater() {
-        Inflater inf;
-        synchronized (inflaterCache) {
-            while (null != (inf = inflaterCache.poll())) {
-                if (false == inf.ended()) {
-                    return inf;
-                }
-            }
-        }
-        return new Inflater(true);
-    }
-
-    /*
-     * Releases the specified inflater to the list of available inflaters.
-     */
-    private void releaseInflater(Inflater inf) {
-        if (false == inf.ended()) {
-            inf.reset();
-            synchronized (inflaterCache) {
-                inflaterCache.add(inf);
-            }
-        }
-    }
-
-    // List of available Inflater objects for decompression
-    private Deque<Inflater> inflaterCache = new ArrayDeque<>();
+    // Inflater objects available for decompression, shared by the
+    // streams of this zip file; as many are kept as were in use at once
+    private final InflaterPool inflaterPool =
+        new InflaterPool(true, Integer.MAX_VALUE);
 
     /**
      * Returns the path name of the ZIP file.
@@ -505,6 +564,10 @@ class ZipFile implements ZipConstants, Closeable {
         }
 
         public boolean hasNext() {
+            if (source != null) {
+                ensureOpen();
+                return i < total;
+            }
             synchronized (ZipFile.this) {
                 ensureOpen();
                 return i < total;
@@ -516,6 +579,13 @@ class ZipFile implements ZipConstants, Closeable {
         }
 
         public ZipEntry next() {
+            if (source != null) {
+                ensureOpen();
+                if (i >= total) {
+                    throw new NoSuchElementException();
+                }
+                return getSourceEntry(null, source.getEntryPos(i++));
+            }
             synchronized (ZipFile.this) {
                 ensureOpen();
                 if (i >= total) {
@@ -553,6 +623,99 @@ class ZipFile implements ZipConstants, Closeable {
         return new ZipEntryIterator();
     }
 
+    /*
+     * Enumerates the entries at the given CEN positions of the source.
+     */
+    private class SourceEntryIterator implements Enumeration<ZipEntry> {
+        private final int[] pos;
+        private int i = 0;
+
+        SourceEntryIterator(int[] pos) {
+            this.pos = pos;
+        }
+
+        public boolean hasMoreElements() {
+            ensureOpen();
+            return i < pos.length;
+        }
+
+        public ZipEntry nextElement() {
+            ensureOpen();
+            if (i >= pos.length) {
+                throw new NoSuchElementException();
+            }
+            return getSourceEntry(null, pos[i++]);
+        }
+    }
+
+    /**
+     * Returns an enumeration of the ZIP file entries whose names start
+     * with the specified prefix.  For example, the prefix
+     * {@code "META-INF/"} selects the entries in the {@code META-INF}
+     * directory and its subdirectories.  The entries are returned in
+     * ascending order of the Unicode code points of their names, which is
+     * the order of the unsigned bytes of the names encoded in UTF-8.
+     *
+     * <p> The entries are found by a binary search of the entry names
+     * rather than by enumerating every entry of the ZIP file; the sorted
+     * names are kept from the first invocation of this method on.
+     *
+     * @param prefix the prefix of the names of the entries
+     * @return an enumeration of the matching ZIP file entries
+     * @throws IllegalStateException if the zip file has been closed
+     * @since 9
+     */
+    public Enumeration<? extends ZipEntry> entries(String prefix) {
+        if (prefix == null) {
+            throw new NullPointerException("prefix");
+        }
+        ensureOpen();
+        if (source != null && zc.isUTF8()) {
+            return new SourceEntryIterator(
+                source.getEntryPosWithPrefix(zc.getBytes(prefix)));
+        }
+        // the names are not all in one encoding, or there is no index
+        List<ZipEntry> list = new ArrayList<>();
+        for (ZipEntryIterator it = new ZipEntryIterator(); it.hasNext(); ) {
+            ZipEntry ze = it.next();
+            if (ze.name.startsWith(prefix)) {
+                list.add(ze);
+            }
+        }
+        list.sort(new Comparator<ZipEntry>() {
+            public int compare(ZipEntry e1, ZipEntry e2) {
+                return compareCodePoints(e1.name, e2.name);
+            }
+        });
+        return Collections.enumeration(list);
+    }
+
+    /**
+     * Compares two strings by their Unicode code points, the order in
+     * which the index of entry names is sorted.  This differs from
+     * String.compareTo only where a surrogate is compared with a char
+     * in the range U+E000 to U+FFFF, so such chars are moved below the
+     * surrogates before comparing.
+     */
+    private static int compareCodePoints(String s1, String s2) {
+        int n = Math.min(s1.length(), s2.length());
+        for (int i = 0; i < n; i++) {
+            char c1 = s1.charAt(i);
+            char c2 = s2.charAt(i);
+            if (c1 != c2) {
+                return fixupSurrogate(c1) - fixupSurrogate(c2);
+            }
+        }
+        return s1.length() - s2.length();
+    }
+
+    private static int fixupSurrogate(char c) {
+        if (c < Character.MIN_SURROGATE) {
+            return c;
+        }
+        return (c > Character.MAX_SURROGATE) ? c - 0x800 : c + 0x2000;
+    }
+
     /**
      * Return an ordered {@code Stream} over the ZIP file entries.
      * Entries appear in the {@code Stream} in the order they appear in
@@ -603,6 +766,38 @@ class ZipFile implements ZipConstants, Closeable {
         return e;
     }
 
+    private ZipEntry getSourceEntry(String name, int pos) {
+        ZipEntry e = new ZipEntry();
+        e.flag = source.getFlag(pos);  // get the flag first
+        if (name != null) {
+            e.name = name;
+        } else {
+            byte[] bname = source.getName(pos);
+            if (!zc.isUTF8() && (e.flag & EFS) != 0) {
+                e.name = zc.toStringUTF8(bname, bname.length);
+            } else {
+                e.name = zc.toString(bname, bname.length);
+            }
+        }
+        e.xdostime = source.getTime(pos);
+        e.crc = source.getCrc(pos);
+        e.size = source.getSize(pos);
+        e.csize = source.getCSize(pos);
+        e.method = source.getMethod(pos);
+        e.setExtra0(source.getExtra(pos), false);
+        byte[] bcomm = source.getComment(pos);
+        if (bcomm == null) {
+            e.comment = null;
+        } else {
+            if (!zc.isUTF8() && (e.flag & EFS) != 0) {
+                e.comment = zc.toStringUTF8(bcomm, bcomm.length);
+            } else {
+                e.comment = zc.toString(bcomm, bcomm.length);
+            }
+        }
+        return e;
+    }
+
     private static native long getNextEntry(long jzfile, int i);
 
     /**
@@ -645,12 +840,7 @@ class ZipFile implements ZipConstants, Closeable {
             }
 
             // Release cached inflaters
-            Inflater inf;
-            synchronized (inflaterCache) {
-                while (null != (inf = inflaterCache.poll())) {
-                    inf.end();
-                }
-            }
+            inflaterPool.close();
 
             if (jzfile != 0) {
                 // Close the zip file
@@ -659,6 +849,11 @@ class ZipFile implements ZipConstants, Closeable {
 
                 close(zf);
             }
+
+            if (source != null) {
+                // releases the file once reads in progress fail
+                source.close();
+            }
         }
     }
 
@@ -705,6 +900,7 @@ class ZipFile implements ZipConstants, Closeable {
    private class ZipFileInputStream extends InputStream {
         private volatile boolean zfisCloseRequested = false;
         protected long jzentry; // address of jzentry data
+        private final long start; // position of entry data in source, or -1
         private   long pos;     // current position within entry data
         protected long rem;     // number of remaining bytes within entry
         protected long size;    // uncompressed size of this entry
@@ -714,9 +910,20 @@ class ZipFile implements ZipConstants, Closeable {
             rem = getEntryCSize(jzentry);
             size = getEntrySize(jzentry);
             this.jzentry = jzentry;
+            this.start = -1;
+        }
+
+        ZipFileInputStream(long start, long csize, long size) {
+            pos = 0;
+            rem = csize;
+            this.size = size;
+            this.start = start;
         }
 
         public int read(byte b[], int off, int len) throws IOException {
+            if (start >= 0) {
+                return readSource(b, off, len);
+            }
             synchronized (ZipFile.this) {
                 long rem = this.rem;
                 long pos = this.pos;
@@ -745,6 +952,29 @@ class ZipFile implements ZipConstants, Closeable {
             return len;
         }
 
+        // Reads positionally from the zip file source, without the
+        // ZipFile lock
+        private int readSource(byte b[], int off, int len) throws IOException {
+            long rem = this.rem;
+            if (rem == 0) {
+                return -1;
+            }
+            if (len <= 0) {
+                return 0;
+            }
+            if (len > rem) {
+                len = (int) rem;
+            }
+            ensureOpenOrZipException();
+            source.read(start + pos, b, off, len);
+            pos += len;
+            this.rem = rem - len;
+            if (this.rem == 0) {
+                close();
+            }
+            return len;
+        }
+
         public int read() throws IOException {
             byte[] b = new byte[1];
             if (read(b, 0, 1) == 1) {
@@ -779,10 +1009,12 @@ class ZipFile implements ZipConstants, Closeable {
             zfisCloseRequested = true;
 
             rem = 0;
-            synchronized (ZipFile.this) {
-                if (jzentry != 0 && ZipFile.this.jzfile != 0) {
-                    freeEntry(ZipFile.this.jzfile, jzentry);
-                    jzentry = 0;
+            if (start < 0) {
+                synchronized (ZipFile.this) {
+                    if (jzentry != 0 && ZipFile.this.jzfile != 0) {
+                        freeEntry(ZipFile.this.jzfile, jzentry);
+                        jzentry = 0;
+                    }
                 }
             }
             synchronized (streams) {
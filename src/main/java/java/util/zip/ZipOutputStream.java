@@ -75,8 +75,16 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
     private long locoff = 0;
     private byte[] comment;
     private int method = DEFLATED;
+    private int level = Deflater.DEFAULT_COMPRESSION;
     private boolean finished;
 
+    // Compresses DEFLATED entries on several threads when parallelism > 1
+    private int parallelism = 1;
+    private ParallelDeflater pdef;
+    private int pdefLevel;
+    private int pdefThreads;
+    private boolean parallelEntry;  // current entry is compressed by pdef
+
     private boolean closed = false;
 
     private final ZipCoder zc;
@@ -174,6 +182,29 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
      */
     public void setLevel(int level) {
         def.setLevel(level);
+        this.level = level;
+    }
+
+    /**
+     * Sets the number of threads used to compress subsequent entries which
+     * are DEFLATED.  With more than one thread, the data of each entry is
+     * divided into blocks of 128K bytes that are compressed concurrently
+     * and joined into one standard deflate stream, so that the entries
+     * remain readable by {@link ZipInputStream} and {@link ZipFile}.  Each
+     * block is compressed with the end of the preceding block as a preset
+     * dictionary.  Entries smaller than one block gain nothing from more
+     * than one thread.  The default is 1, which compresses on the calling
+     * thread.  The threads are stopped when this stream is closed.
+     *
+     * @param threads the number of threads
+     * @exception IllegalArgumentException if {@code threads < 1}
+     * @since 9
+     */
+    public void setParallelism(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads < 1");
+        }
+        parallelism = threads;
     }
 
     /**
@@ -233,6 +264,15 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
         }
         if (zc.isUTF8())
             e.flag |= EFS;
+        parallelEntry = (e.method == DEFLATED && parallelism > 1);
+        if (parallelEntry && (pdef == null || pdefLevel != level ||
+                              pdefThreads != parallelism)) {
+            if (pdef != null)
+                pdef.end();
+            pdef = new ParallelDeflater(out, level, parallelism);
+            pdefLevel = level;
+            pdefThreads = parallelism;
+        }
         current = new XEntry(e, written);
         xentries.add(current);
         writeLOC(current);
@@ -250,21 +290,30 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
             ZipEntry e = current.entry;
             switch (e.method) {
             case DEFLATED:
-                def.finish();
-                while (!def.finished()) {
-                    deflate();
+                long bytesRead, bytesWritten;
+                if (parallelEntry) {
+                    pdef.finish();
+                    bytesRead = pdef.getBytesRead();
+                    bytesWritten = pdef.getBytesWritten();
+                } else {
+                    def.finish();
+                    while (!def.finished()) {
+                        deflate();
+                    }
+                    bytesRead = def.getBytesRead();
+                    bytesWritten = def.getBytesWritten();
                 }
                 if ((e.flag & 8) == 0) {
                     // verify size, compressed size, and crc-32 settings
-                    if (e.size != def.getBytesRead()) {
+                    if (e.size != bytesRead) {
                         throw new ZipException(
                             "invalid entry size (expected " + e.size +
-                            " but got " + def.getBytesRead() + " bytes)");
+                            " but got " + bytesRead + " bytes)");
                     }
-                    if (e.csize != def.getBytesWritten()) {
+                    if (e.csize != bytesWritten) {
                         throw new ZipException(
                             "invalid entry compressed size (expected " +
-                            e.csize + " but got " + def.getBytesWritten() + " bytes)");
+                            e.csize + " but got " + bytesWritten + " bytes)");
                     }
                     if (e.crc != crc.getValue()) {
                         throw new ZipException(
@@ -273,12 +322,16 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
                             Long.toHexString(crc.getValue()) + ")");
                     }
                 } else {
-                    e.size  = def.getBytesRead();
-                    e.csize = def.getBytesWritten();
+                    e.size  = bytesRead;
+                    e.csize = bytesWritten;
                     e.crc = crc.getValue();
                     writeEXT(e);
                 }
-                def.reset();
+                if (parallelEntry) {
+                    pdef.reset();
+                } else {
+                    def.reset();
+                }
                 written += e.csize;
                 break;
             case STORED:
@@ -300,6 +353,7 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
             }
             crc.reset();
             current = null;
+            parallelEntry = false;
         }
     }
 
@@ -328,7 +382,11 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
         ZipEntry entry = current.entry;
         switch (entry.method) {
         case DEFLATED:
-            super.write(b, off, len);
+            if (parallelEntry) {
+                pdef.write(b, off, len);
+            } else {
+                super.write(b, off, len);
+            }
             break;
         case STORED:
             written += len;
@@ -374,7 +432,12 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
      */
     public void close() throws IOException {
         if (!closed) {
-            super.close();
+            try {
+                super.close();
+            } finally {
+                if (pdef != null)
+                    pdef.end();
+            }
             closed = true;
         }
     }
@@ -0,0 +1,523 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static java.util.zip.ZipConstants.*;
+import static java.util.zip.ZipConstants64.*;
+import static java.util.zip.ZipUtils.*;
+
+/**
+ * A read-only view of a zip file that lets any number of threads look up
+ * entries and read entry data at once.  The central directory is read into
+ * memory when the source is opened and indexed by a hash table over the
+ * entry name bytes, so that looking up an entry takes constant time and
+ * needs no native call.  An array of the entries sorted by name, for
+ * listing the entries whose names start with a prefix, is built the first
+ * time it is needed.  Entry data is read from a {@code RandomAccessFile}
+ * that is positioned and read under the lock of the source; only the
+ * read itself is serialized, while lookups and inflating run in parallel.
+ *
+ * <p>The file is not mapped: {@link #close} closes it, so that the file
+ * can be deleted or replaced as soon as the zip file is closed, and a file
+ * that is truncated while open fails reads with a ZipException.  Reads
+ * from a {@code RandomAccessFile} are not interruptible, so interrupting a
+ * reading thread neither fails its read nor closes the file for the other
+ * threads, and the file is never reopened.
+ */
+final class ZipSource {
+
+    private final RandomAccessFile zfile;    // guarded by this
+    private boolean closed;                  // guarded by this
+    private final long length;               // length of the file
+    private long locpos;                     // position of the first LOC header
+    private byte[] cen;                      // the central directory
+    private int total;                       // number of entries
+
+    // Hash index over the entry names in the central directory
+    private int[] entries;                   // CEN position of each entry
+    private int[] hashes;                    // name hash of each entry
+    private int[] next;                      // next entry in the same bucket
+    private int[] table;                     // first entry of each bucket
+
+    // CEN positions of the entries sorted by name bytes, built on demand
+    private volatile int[] sorted;
+
+    private ZipSource(RandomAccessFile zfile) throws IOException {
+        this.zfile = zfile;
+        this.length = zfile.length();
+        initCEN();
+    }
+
+    /**
+     * Opens a source for the given file.
+     *
+     * @throws ZipException if the central directory is invalid
+     * @throws IOException if the file cannot be read
+     */
+    static ZipSource open(File file) throws IOException {
+        RandomAccessFile zfile = new RandomAccessFile(file, "r");
+        try {
+            return new ZipSource(zfile);
+        } catch (IOException | RuntimeException e) {
+            zfile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of entries in the central directory.
+     */
+    int size() {
+        return total;
+    }
+
+    /**
+     * Returns the CEN position of the entry with the given name, or -1 if
+     * there is no such entry.
+     */
+    int getEntryPos(byte[] name) {
+        int h = hash(name, 0, name.length);
+        int i = table[h & (table.length - 1)];
+        while (i != -1) {
+            if (hashes[i] == h) {
+                int pos = entries[i];
+                int nlen = get16(cen, pos + CENNAM);
+                if (nlen == name.length &&
+                    regionEquals(cen, pos + CENHDR, name, nlen)) {
+                    return pos;
+                }
+            }
+            i = next[i];
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the CEN position of the entry with the given index, which
+     * is its position in central directory order.
+     */
+    int getEntryPos(int index) {
+        return entries[index];
+    }
+
+    /**
+     * Returns the CEN positions of the entries whose names start with the
+     * given bytes, in ascending order of their name bytes compared as
+     * unsigned values.
+     */
+    int[] getEntryPosWithPrefix(byte[] prefix) {
+        int[] sorted = sortedEntries();
+        // binary search for the first name not less than the prefix
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareName(sorted[mid], prefix, false) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        int from = lo;
+        hi = sorted.length;
+        // and for the first name past those that start with the prefix
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareName(sorted[mid], prefix, true) == 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return Arrays.copyOfRange(sorted, from, lo);
+    }
+
+    /**
+     * Returns the name of the entry at the given CEN position.
+     */
+    byte[] getName(int pos) {
+        int off = pos + CENHDR;
+        return Arrays.copyOfRange(cen, off, off + get16(cen, pos + CENNAM));
+    }
+
+    /**
+     * Returns the extra field data of the entry at the given CEN position,
+     * or null if it has none.
+     */
+    byte[] getExtra(int pos) {
+        int elen = get16(cen, pos + CENEXT);
+        if (elen == 0) {
+            return null;
+        }
+        int off = pos + CENHDR + get16(cen, pos + CENNAM);
+        return Arrays.copyOfRange(cen, off, off + elen);
+    }
+
+    /**
+     * Returns the comment of the entry at the given CEN position, or null
+     * if it has none.
+     */
+    byte[] getComment(int pos) {
+        int clen = get16(cen, pos + CENCOM);
+        if (clen == 0) {
+            return null;
+        }
+        int off = pos + CENHDR + get16(cen, pos + CENNAM)
+                               + get16(cen, pos + CENEXT);
+        return Arrays.copyOfRange(cen, off, off + clen);
+    }
+
+    /**
+     * Returns the general purpose flag of the entry at the given CEN
+     * position.
+     */
+    int getFlag(int pos) {
+        return get16(cen, pos + CENFLG);
+    }
+
+    /**
+     * Returns the DOS modification time of the entry at the given CEN
+     * position.
+     */
+    long getTime(int pos) {
+        return get32(cen, pos + CENTIM);
+    }
+
+    /**
+     * Returns the CRC-32 of the entry at the given CEN position.
+     */
+    long getCrc(int pos) {
+        return get32(cen, pos + CENCRC);
+    }
+
+    /**
+     * Returns the compression method of the entry at the given CEN position.
+     */
+    int getMethod(int pos) {
+        return get16(cen, pos + CENHOW);
+    }
+
+    /**
+     * Returns the uncompressed size of the entry at the given CEN position.
+     */
+    long getSize(int pos) {
+        return zip64Value(pos, CENLEN);
+    }
+
+    /**
+     * Returns the compressed size of the entry at the given CEN position.
+     */
+    long getCSize(int pos) {
+        return zip64Value(pos, CENSIZ);
+    }
+
+    /**
+     * Returns the position in the file of the data of the entry at the
+     * given CEN position, which follows its LOC header.
+     */
+    long getDataOffset(int pos) throws IOException {
+        long locoff = locpos + zip64Value(pos, CENOFF);
+        byte[] loc = new byte[LOCHDR];
+        read(locoff, loc, 0, LOCHDR);
+        if (get32(loc, 0) != LOCSIG) {
+            throw new ZipException("invalid LOC header (bad signature)");
+        }
+        return locoff + LOCHDR + get16(loc, LOCNAM) + get16(loc, LOCEXT);
+    }
+
+    /**
+     * Reads exactly len bytes of the file, starting at the given position.
+     *
+     * @throws ZipException if the source has been closed or the bytes are
+     *         not within the file
+     * @throws IOException if an I/O error has occurred
+     */
+    void read(long pos, byte[] b, int off, int len) throws IOException {
+        if (pos < 0 || len < 0 || pos > length - len) {
+            throw new ZipException("invalid position " + pos +
+                                   " reading zip file data");
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new ZipException("ZipFile closed");
+            }
+            zfile.seek(pos);
+            try {
+                zfile.readFully(b, off, len);
+            } catch (EOFException e) {
+                throw new ZipException("zip file truncated");
+            }
+        }
+    }
+
+    /**
+     * Closes the file.  Reads after this method returns throw
+     * ZipException.
+     */
+    synchronized void close() throws IOException {
+        closed = true;
+        zfile.close();
+    }
+
+    /*
+     * Returns a size or offset of the entry at the given CEN position,
+     * taken from its ZIP64 extra field if the header holds the ZIP64 magic
+     * value.  The extra field holds the uncompressed size, the compressed
+     * size and the LOC offset, in that order, each present only if the
+     * header holds the magic value for it.  Returns -1 if the extra field
+     * does not hold the value, which checkZip64 rules out when the source
+     * is opened.
+     */
+    private long zip64Value(int pos, int field) {
+        long v = get32(cen, pos + field);
+        if (v != ZIP64_MAGICVAL) {
+            return v;
+        }
+        int off = pos + CENHDR + get16(cen, pos + CENNAM);
+        int end = off + get16(cen, pos + CENEXT);
+        while (off + 4 <= end) {
+            int tag = get16(cen, off);
+            int sz = get16(cen, off + 2);
+            off += 4;
+            if (tag == EXTID_ZIP64) {
+                int p = off;
+                if (field != CENLEN && get32(cen, pos + CENLEN) == ZIP64_MAGICVAL)
+                    p += 8;
+                if (field == CENOFF && get32(cen, pos + CENSIZ) == ZIP64_MAGICVAL)
+                    p += 8;
+                if (p + 8 > off + sz || p + 8 > end)
+                    break;
+                return get64(cen, p);
+            }
+            off += sz;
+        }
+        return -1;
+    }
+
+    private void checkZip64(int pos) throws ZipException {
+        if (zip64Value(pos, CENLEN) == -1 || zip64Value(pos, CENSIZ) == -1 ||
+            zip64Value(pos, CENOFF) == -1) {
+            throw new ZipException("invalid zip64 extra data field");
+        }
+    }
+
+    /*
+     * Finds the END header, reads the central directory into memory and
+     * builds the name index.
+     */
+    private void initCEN() throws IOException {
+        long endpos = findEND();
+        byte[] end = new byte[ENDHDR];
+        read(endpos, end, 0, ENDHDR);
+        long cenlen = get32(end, ENDSIZ);
+        long cenoff = get32(end, ENDOFF);
+        long cenpos = endpos - cenlen;
+
+        // ZIP64 end header, located by the record preceding the END header
+        if (endpos >= ZIP64_LOCHDR) {
+            byte[] loc = new byte[ZIP64_LOCHDR];
+            read(endpos - ZIP64_LOCHDR, loc, 0, ZIP64_LOCHDR);
+            if (get32(loc, 0) == ZIP64_LOCSIG) {
+                byte[] end64 = new byte[ZIP64_ENDHDR];
+                long end64pos = get64(loc, ZIP64_LOCOFF);
+                if (!readZip64End(end64pos, end64)) {
+                    // the offset does not count data before the first LOC
+                    // header; look just before the locator instead
+                    end64pos = endpos - ZIP64_LOCHDR - ZIP64_ENDHDR;
+                    if (!readZip64End(end64pos, end64)) {
+                        throw new ZipException("invalid zip64 END header");
+                    }
+                }
+                cenlen = get64(end64, ZIP64_ENDSIZ);
+                cenoff = get64(end64, ZIP64_ENDOFF);
+                cenpos = end64pos - cenlen;
+            }
+        }
+        if (cenlen < 0 || cenlen > Integer.MAX_VALUE - 8) {
+            throw new ZipException("invalid END header (bad central directory size)");
+        }
+        // there may be data, such as a launcher, before the first LOC header
+        locpos = cenpos - cenoff;
+        if (cenpos < 0 || locpos < 0) {
+            throw new ZipException("invalid END header (bad central directory offset)");
+        }
+        cen = new byte[(int)cenlen];
+        read(cenpos, cen, 0, cen.length);
+
+        int[] entries = new int[Math.max(16, get16(end, ENDTOT))];
+        int[] hashes = new int[entries.length];
+        int n = 0;
+        int pos = 0;
+        while (pos + CENHDR <= cen.length) {
+            if (get32(cen, pos) != CENSIG) {
+                throw new ZipException("invalid CEN header (bad signature)");
+            }
+            int nlen = get16(cen, pos + CENNAM);
+            int next = pos + CENHDR + nlen + get16(cen, pos + CENEXT)
+                                           + get16(cen, pos + CENCOM);
+            if (next > cen.length) {
+                throw new ZipException("invalid CEN header (bad header size)");
+            }
+            if (n == entries.length) {
+                entries = Arrays.copyOf(entries, n << 1);
+                hashes = Arrays.copyOf(hashes, n << 1);
+            }
+            entries[n] = pos;
+            hashes[n] = hash(cen, pos + CENHDR, nlen);
+            checkZip64(pos);
+            n++;
+            pos = next;
+        }
+        total = n;
+        this.entries = entries;
+        this.hashes = hashes;
+
+        // bucket chains hold entries in central directory order, so that the
+        // first of several entries with the same name is found, as in the
+        // native zip library
+        int[] table = new int[Math.max(16, Integer.highestOneBit(n) << 1)];
+        int[] chain = new int[n];
+        Arrays.fill(table, -1);
+        for (int i = n - 1; i >= 0; i--) {
+            int b = hashes[i] & (table.length - 1);
+            chain[i] = table[b];
+            table[b] = i;
+        }
+        this.table = table;
+        this.next = chain;
+    }
+
+    /*
+     * Reads the ZIP64 END header at the given position into end64 and
+     * returns true, or returns false if there is no such header there.
+     */
+    private boolean readZip64End(long pos, byte[] end64) throws IOException {
+        if (pos < 0 || pos > length - ZIP64_ENDHDR) {
+            return false;
+        }
+        read(pos, end64, 0, ZIP64_ENDHDR);
+        return get32(end64, 0) == ZIP64_ENDSIG;
+    }
+
+    /*
+     * Returns the position of the END header, searching backwards from the
+     * end of the file over a possible zip file comment.
+     */
+    private long findEND() throws IOException {
+        if (length < ENDHDR) {
+            throw new ZipException("zip file is empty");
+        }
+        long minpos = Math.max(0, length - ENDHDR - 0xFFFF);
+        byte[] buf = new byte[(int)(length - minpos)];
+        read(minpos, buf, 0, buf.length);
+        for (int i = buf.length - ENDHDR; i >= 0; i--) {
+            if (buf[i] == (byte)'P' && get32(buf, i) == ENDSIG &&
+                i + ENDHDR + get16(buf, i + ENDCOM) <= buf.length) {
+                return minpos + i;
+            }
+        }
+        throw new ZipException("zip END header not found");
+    }
+
+    /*
+     * Returns the entries sorted by name, sorting them the first time.
+     * Threads that race to sort build equal arrays.
+     */
+    private int[] sortedEntries() {
+        int[] s = sorted;
+        if (s == null) {
+            Integer[] a = new Integer[total];
+            for (int i = 0; i < total; i++) {
+                a[i] = entries[i];
+            }
+            Arrays.sort(a, new Comparator<Integer>() {
+                public int compare(Integer p1, Integer p2) {
+                    return compareNames(p1, p2);
+                }
+            });
+            s = new int[total];
+            for (int i = 0; i < total; i++) {
+                s[i] = a[i];
+            }
+            sorted = s;
+        }
+        return s;
+    }
+
+    private int compareNames(int pos1, int pos2) {
+        int len1 = get16(cen, pos1 + CENNAM);
+        int len2 = get16(cen, pos2 + CENNAM);
+        int off1 = pos1 + CENHDR;
+        int off2 = pos2 + CENHDR;
+        for (int i = 0, n = Math.min(len1, len2); i < n; i++) {
+            int c = (cen[off1 + i] & 0xff) - (cen[off2 + i] & 0xff);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return len1 - len2;
+    }
+
+    /*
+     * Compares the name of the entry at the given CEN position with the
+     * given bytes.  If prefixOnly is true, only the first b.length bytes
+     * of the name are compared.
+     */
+    private int compareName(int pos, byte[] b, boolean prefixOnly) {
+        int len = get16(cen, pos + CENNAM);
+        int off = pos + CENHDR;
+        for (int i = 0, n = Math.min(len, b.length); i < n; i++) {
+            int c = (cen[off + i] & 0xff) - (b[i] & 0xff);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return (prefixOnly && len >= b.length) ? 0 : len - b.length;
+    }
+
+    private static int hash(byte[] b, int off, int len) {
+        int h = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            h = 31 * h + b[i];
+        }
+        return h;
+    }
+
+    private static boolean regionEquals(byte[] cen, int off, byte[] name, int len) {
+        for (int i = 0; i < len; i++) {
+            if (cen[off + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
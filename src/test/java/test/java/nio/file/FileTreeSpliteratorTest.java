@@ -0,0 +1,68 @@
+package test.java.nio.file;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @description: Files.walk with FileVisitOption.PARALLEL
+ */
+public class FileTreeSpliteratorTest {
+    @Test
+    public void testParallelWalk() throws IOException {
+        // looked up by name, as the tests are compiled against the platform
+        // JDK, which has no such option
+        FileVisitOption parallel = Arrays.stream(FileVisitOption.values())
+                .filter(o -> o.name().equals("PARALLEL"))
+                .findFirst().orElse(null);
+        assumeTrue(parallel != null, "FileVisitOption.PARALLEL not available");
+
+        Path root = Files.createTempDirectory("walk");
+        try {
+            for (int i = 0; i < 16; i++) {
+                Path dir = Files.createDirectories(root.resolve("d" + i).resolve("sub"));
+                for (int j = 0; j < 20; j++) {
+                    Files.createFile(dir.resolve("f" + j));
+                }
+            }
+
+            long expected;
+            try (Stream<Path> s = Files.walk(root)) {
+                expected = s.count();
+            }
+
+            // slow down each element so that the fork/join pool uses more
+            // than the calling thread
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            long count;
+            try (Stream<Path> s = Files.walk(root, parallel)) {
+                count = s.peek(p -> {
+                    threads.add(Thread.currentThread());
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }).count();
+            }
+            assertEquals(expected, count);
+            assertTrue(threads.size() > 1, "walked by " + threads.size() + " thread");
+        } finally {
+            try (Stream<Path> s = Files.walk(root)) {
+                s.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+}